@@ -0,0 +1,32 @@
+package com.example.gateway.cache;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Fully buffered downstream response that can be written to any number of
+ * exchanges.
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+	public CachedResponse {
+		HttpHeaders copy = new HttpHeaders();
+		copy.putAll(headers);
+		// the body is replayed in one piece, so framing is recomputed by the server
+		copy.remove(HttpHeaders.TRANSFER_ENCODING);
+		copy.remove(HttpHeaders.CONTENT_LENGTH);
+		headers = HttpHeaders.readOnlyHttpHeaders(copy);
+	}
+
+	public Mono<Void> writeTo(ServerHttpResponse response) {
+		response.setStatusCode(status);
+		response.getHeaders().putAll(headers);
+		response.getHeaders().setContentLength(body.length);
+		DataBuffer buffer = response.bufferFactory().wrap(body);
+		return response.writeWith(Mono.just(buffer));
+	}
+}
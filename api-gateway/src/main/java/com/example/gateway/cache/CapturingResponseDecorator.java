@@ -0,0 +1,43 @@
+package com.example.gateway.cache;
+
+import java.util.function.Consumer;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Buffers the downstream body, hands a {@link CachedResponse} copy to
+ * {@code onCaptured}, then writes the same bytes to the client.
+ */
+class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+	private final Consumer<CachedResponse> onCaptured;
+
+	CapturingResponseDecorator(ServerHttpResponse delegate, Consumer<CachedResponse> onCaptured) {
+		super(delegate);
+		this.onCaptured = onCaptured;
+	}
+
+	@Override
+	public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+		return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+			byte[] bytes = new byte[joined.readableByteCount()];
+			joined.read(bytes);
+			DataBufferUtils.release(joined);
+
+			onCaptured.accept(new CachedResponse(getStatusCode(), getHeaders(), bytes));
+			return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+		});
+	}
+
+	@Override
+	public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+		return writeWith(Flux.from(body).flatMapSequential(p -> p));
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.gateway.cache;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Single-flight for idempotent requests: while one request for a key is on
+ * its way to the downstream service, identical requests wait for its
+ * response instead of making their own call. Nothing is kept once the
+ * response is delivered. Opt in per route with {@code - CoalesceRequests}.
+ *
+ * Meters {@code gateway.coalesce.requests} and {@code gateway.coalesce.merged}
+ * (per route) give the coalescing ratio.
+ */
+@Component
+public class CoalesceRequestsGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+	private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+	private final MeterRegistry meterRegistry;
+
+	public CoalesceRequestsGatewayFilterFactory(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public GatewayFilter apply(Object config) {
+		GatewayFilter filter = (exchange, chain) -> {
+			if (!RequestKeys.isCacheable(exchange.getRequest())) {
+				return chain.filter(exchange);
+			}
+
+			return RequestKeys.readBody(exchange.getRequest()).flatMap(body -> {
+				String key = RequestKeys.of(exchange.getRequest(), body);
+				ServerWebExchange replayable = exchange.mutate()
+						.request(RequestKeys.withBody(exchange.getRequest(), body))
+						.build();
+				String routeId = routeId(exchange);
+				meterRegistry.counter("gateway.coalesce.requests", "route", routeId).increment();
+
+				Sinks.One<CachedResponse> sink = Sinks.one();
+				Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+				if (leader != null) {
+					meterRegistry.counter("gateway.coalesce.merged", "route", routeId).increment();
+					// if the leader fails without a response, fall back to our own call
+					return leader.asMono()
+							.flatMap(response -> response.writeTo(exchange.getResponse()))
+							.onErrorResume(ex -> chain.filter(replayable));
+				}
+
+				CapturingResponseDecorator response = new CapturingResponseDecorator(exchange.getResponse(),
+						captured -> {
+							inFlight.remove(key, sink);
+							sink.tryEmitValue(captured);
+						});
+				return chain.filter(replayable.mutate().response(response).build())
+						.doFinally(signal -> {
+							if (inFlight.remove(key, sink)) {
+								sink.tryEmitError(new IllegalStateException("No response to share for " + key));
+							}
+						});
+			});
+		};
+		return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+	}
+
+	private static String routeId(ServerWebExchange exchange) {
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		return route == null ? "unknown" : route.getId();
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.gateway.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.example.gateway.event.FlightChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Invalidates cached flight responses when flight-service reports a change.
+ * Every gateway instance uses its own consumer group so each one sees every
+ * event; TTLs still bound staleness if an event is lost.
+ */
+@Component
+public class FlightChangeListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(FlightChangeListener.class);
+
+	private final ResponseCache responseCache;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public FlightChangeListener(ResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+
+	@KafkaListener(topics = "${gateway.cache.flight-changes-topic:flight-changes}",
+			groupId = "api-gateway-#{T(java.util.UUID).randomUUID()}")
+	public void onFlightChanged(String payload) {
+		try {
+			FlightChangedEvent event = objectMapper.readValue(payload, FlightChangedEvent.class);
+			if (event.getChangeType() == FlightChangedEvent.ChangeType.CREATED) {
+				responseCache.invalidateLists();
+			} else {
+				responseCache.invalidateFlight(event.getFlightId());
+			}
+		} catch (Exception ex) {
+			logger.warn("Ignoring malformed flight change event {}: {}", payload, ex.getMessage());
+		}
+	}
+}
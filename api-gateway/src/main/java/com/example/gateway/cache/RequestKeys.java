@@ -0,0 +1,92 @@
+package com.example.gateway.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds cache keys from method, path, query and a hash of the normalized
+ * request body, and lets the body be read once and replayed downstream.
+ */
+final class RequestKeys {
+
+	private static final byte[] NO_BODY = new byte[0];
+
+	// sorted keys and no whitespace, so equivalent JSON bodies hash the same
+	private static final ObjectMapper CANONICAL_JSON = new ObjectMapper()
+			.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+	private RequestKeys() {
+	}
+
+	static boolean isCacheable(ServerHttpRequest request) {
+		return HttpMethod.GET.equals(request.getMethod()) || HttpMethod.POST.equals(request.getMethod());
+	}
+
+	static Mono<byte[]> readBody(ServerHttpRequest request) {
+		if (HttpMethod.GET.equals(request.getMethod())) {
+			return Mono.just(NO_BODY);
+		}
+		return DataBufferUtils.join(request.getBody()).map(buffer -> {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			return bytes;
+		}).defaultIfEmpty(NO_BODY);
+	}
+
+	static ServerHttpRequest withBody(ServerHttpRequest request, byte[] body) {
+		if (body.length == 0) {
+			return request;
+		}
+		return new ServerHttpRequestDecorator(request) {
+			@Override
+			public Flux<DataBuffer> getBody() {
+				return Flux.defer(() -> Mono.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+			}
+		};
+	}
+
+	static String of(ServerHttpRequest request, byte[] body) {
+		StringBuilder key = new StringBuilder(64)
+				.append(request.getMethod().name()).append(' ')
+				.append(request.getURI().getRawPath());
+		if (request.getURI().getRawQuery() != null) {
+			key.append('?').append(request.getURI().getRawQuery());
+		}
+		if (body.length > 0) {
+			key.append('#').append(hash(normalize(body)));
+		}
+		return key.toString();
+	}
+
+	private static byte[] normalize(byte[] body) {
+		try {
+			return CANONICAL_JSON.writeValueAsBytes(CANONICAL_JSON.readValue(body, Object.class));
+		} catch (Exception notJson) {
+			return body;
+		}
+	}
+
+	private static String hash(byte[] bytes) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
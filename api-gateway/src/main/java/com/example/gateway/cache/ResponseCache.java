@@ -0,0 +1,211 @@
+package com.example.gateway.cache;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Shared store behind the {@code ResponseCache} route filter. Entries are
+ * weighed by body size against {@code gateway.cache.max-bytes}, expire after
+ * their route's TTL, and are indexed by the flight ids they contain, so a
+ * seat change drops exactly the responses that mention that flight without
+ * scanning the rest.
+ *
+ * Invalidations are numbered. A response is not stored if one of its
+ * flights (or, for a list, the lists) was invalidated after its request
+ * started; changes to other flights do not hold it back. The index is only
+ * changed inside the cache's per-key compute, or in the eviction listener
+ * that runs atomically with an eviction, so it never loses a cached key.
+ */
+@Component
+public class ResponseCache {
+
+	private final Cache<String, Entry> cache;
+	private final Ticker ticker;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Map<Integer, Set<String>> keysByFlight = new ConcurrentHashMap<>();
+	private final Set<String> listKeys = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong generation = new AtomicLong();
+	private final Map<Integer, Long> flightInvalidatedAt = new ConcurrentHashMap<>();
+	private final AtomicLong listsInvalidatedAt = new AtomicLong();
+
+	@Autowired
+	public ResponseCache(@Value("${gateway.cache.max-bytes:67108864}") long maxBytes, MeterRegistry meterRegistry) {
+		this(maxBytes, meterRegistry, Ticker.systemTicker());
+	}
+
+	ResponseCache(long maxBytes, MeterRegistry meterRegistry, Ticker ticker) {
+		this.ticker = ticker;
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((String key, Entry entry) -> key.length() + entry.response().body().length)
+				.expireAfter(new PerEntryTtl())
+				.evictionListener((String key, Entry entry, RemovalCause cause) -> unindex(key, entry))
+				.ticker(ticker)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+	}
+
+	public CachedResponse get(String key) {
+		Entry entry = cache.getIfPresent(key);
+		return entry == null ? null : entry.response();
+	}
+
+	public long generation() {
+		return generation.get();
+	}
+
+	/**
+	 * Stores a successful, non-personalised response unless one of its
+	 * flights was invalidated after {@code startGeneration} was read.
+	 */
+	public void put(String key, CachedResponse response, Duration ttl, long startGeneration) {
+		if (!response.status().is2xxSuccessful() || response.headers().containsKey(HttpHeaders.SET_COOKIE)) {
+			return;
+		}
+
+		Set<Integer> flightIds = new HashSet<>();
+		boolean list = false;
+		try {
+			JsonNode root = objectMapper.readTree(response.body());
+			if (root != null && root.isArray()) {
+				root.forEach(node -> addFlightId(flightIds, node));
+				list = true;
+			} else if (root != null) {
+				addFlightId(flightIds, root);
+			}
+		} catch (Exception notJson) {
+			// nothing to index; the entry still expires by TTL
+		}
+
+		Entry entry = new Entry(response, ticker.read() + ttl.toNanos(), flightIds, list);
+		if (invalidatedSince(entry, startGeneration)) {
+			return;
+		}
+		cache.asMap().compute(key, (k, previous) -> {
+			if (previous != null) {
+				unindex(k, previous);
+			}
+			index(k, entry);
+			return entry;
+		});
+		// an invalidation between the check and the index update did not see this entry
+		if (invalidatedSince(entry, startGeneration)) {
+			cache.asMap().computeIfPresent(key, (k, current) -> current == entry ? unindex(k, current) : current);
+		}
+	}
+
+	/** Drops every cached response that contains the given flight. */
+	public void invalidateFlight(int flightId) {
+		flightInvalidatedAt.merge(flightId, generation.incrementAndGet(), Math::max);
+		Set<String> keys = keysByFlight.get(flightId);
+		if (keys != null) {
+			List.copyOf(keys).forEach(key -> cache.asMap().computeIfPresent(key,
+					(k, entry) -> entry.flightIds().contains(flightId) ? unindex(k, entry) : entry));
+		}
+	}
+
+	/** Drops every cached list/search response, e.g. after a new flight is registered. */
+	public void invalidateLists() {
+		listsInvalidatedAt.accumulateAndGet(generation.incrementAndGet(), Math::max);
+		List.copyOf(listKeys).forEach(key -> cache.asMap().computeIfPresent(key,
+				(k, entry) -> entry.list() ? unindex(k, entry) : entry));
+	}
+
+	// for tests
+	void cleanUp() {
+		cache.cleanUp();
+	}
+
+	int indexedKeys() {
+		return keysByFlight.values().stream().mapToInt(Set::size).sum() + listKeys.size();
+	}
+
+	private boolean invalidatedSince(Entry entry, long startGeneration) {
+		if (entry.list() && listsInvalidatedAt.get() > startGeneration) {
+			return true;
+		}
+		for (int flightId : entry.flightIds()) {
+			Long invalidatedAt = flightInvalidatedAt.get(flightId);
+			if (invalidatedAt != null && invalidatedAt > startGeneration) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void index(String key, Entry entry) {
+		entry.flightIds().forEach(flightId -> keysByFlight.compute(flightId, (id, keys) -> {
+			Set<String> indexed = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+			indexed.add(key);
+			return indexed;
+		}));
+		if (entry.list()) {
+			listKeys.add(key);
+		}
+	}
+
+	// returns null, so a remapping function can remove the entry with it
+	private Entry unindex(String key, Entry entry) {
+		entry.flightIds().forEach(flightId -> keysByFlight.computeIfPresent(flightId, (id, keys) -> {
+			keys.remove(key);
+			return keys.isEmpty() ? null : keys;
+		}));
+		if (entry.list()) {
+			listKeys.remove(key);
+		}
+		return null;
+	}
+
+	private static void addFlightId(Set<Integer> ids, JsonNode node) {
+		JsonNode id = node.get("flightId");
+		if (id != null && id.canConvertToInt()) {
+			ids.add(id.asInt());
+		}
+	}
+
+	private record Entry(CachedResponse response, long expiresAtNanos, Set<Integer> flightIds, boolean list) {
+	}
+
+	// a deadline rather than a duration: remapping an entry must not extend its life
+	private static final class PerEntryTtl implements Expiry<String, Entry> {
+
+		@Override
+		public long expireAfterCreate(String key, Entry entry, long currentTime) {
+			return entry.expiresAtNanos() - currentTime;
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+			return entry.expiresAtNanos() - currentTime;
+		}
+
+		@Override
+		public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
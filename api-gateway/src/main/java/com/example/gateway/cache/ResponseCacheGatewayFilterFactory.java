@@ -0,0 +1,77 @@
+package com.example.gateway.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Route filter that answers repeated GET/POST requests from
+ * {@link ResponseCache}. Enable per route in application.yml:
+ *
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 5s
+ * </pre>
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+	private final ResponseCache responseCache;
+
+	public ResponseCacheGatewayFilterFactory(ResponseCache responseCache) {
+		super(Config.class);
+		this.responseCache = responseCache;
+	}
+
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("ttl");
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		GatewayFilter filter = (exchange, chain) -> {
+			if (!RequestKeys.isCacheable(exchange.getRequest())) {
+				return chain.filter(exchange);
+			}
+
+			return RequestKeys.readBody(exchange.getRequest()).flatMap(body -> {
+				String key = RequestKeys.of(exchange.getRequest(), body);
+				CachedResponse hit = responseCache.get(key);
+				if (hit != null) {
+					return hit.writeTo(exchange.getResponse());
+				}
+
+				long generation = responseCache.generation();
+				CapturingResponseDecorator response = new CapturingResponseDecorator(exchange.getResponse(),
+						captured -> responseCache.put(key, captured, config.getTtl(), generation));
+				return chain.filter(exchange.mutate()
+						.request(RequestKeys.withBody(exchange.getRequest(), body))
+						.response(response)
+						.build());
+			});
+		};
+		// must wrap the response before NettyWriteResponseFilter writes it
+		return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+	}
+
+	public static class Config {
+		private Duration ttl = Duration.ofSeconds(5);
+
+		public Duration getTtl() {
+			return ttl;
+		}
+
+		public void setTtl(Duration ttl) {
+			this.ttl = ttl;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.example.gateway.concurrency;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.gateway.concurrency.AdaptiveConcurrencyLimiter.Priority;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Sheds load per downstream route with 503 once the route's adaptive
+ * concurrency limit is reached. Booking and cancellation are admitted up to
+ * the full limit; everything else only up to {@code bulk-share} of it.
+ *
+ * Runs just before the load balancer so cache hits never take a slot.
+ */
+@Component
+public class AdaptiveConcurrencyFilter implements GlobalFilter, Ordered {
+
+	private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+	private final MeterRegistry meterRegistry;
+
+	private final int initialLimit;
+	private final int minLimit;
+	private final int maxLimit;
+	private final double tolerance;
+	private final double backoffRatio;
+	private final double bulkShare;
+
+	public AdaptiveConcurrencyFilter(MeterRegistry meterRegistry,
+			@Value("${gateway.concurrency.initial-limit:20}") int initialLimit,
+			@Value("${gateway.concurrency.min-limit:4}") int minLimit,
+			@Value("${gateway.concurrency.max-limit:500}") int maxLimit,
+			@Value("${gateway.concurrency.latency-tolerance:2.0}") double tolerance,
+			@Value("${gateway.concurrency.backoff-ratio:0.9}") double backoffRatio,
+			@Value("${gateway.concurrency.bulk-share:0.8}") double bulkShare) {
+		this.meterRegistry = meterRegistry;
+		this.initialLimit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.tolerance = tolerance;
+		this.backoffRatio = backoffRatio;
+		this.bulkShare = bulkShare;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		if (route == null) {
+			return chain.filter(exchange);
+		}
+
+		AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(route.getId(), this::newLimiter);
+		Priority priority = priorityOf(exchange.getRequest());
+		if (!limiter.tryAcquire(priority)) {
+			meterRegistry.counter("gateway.concurrency.shed", "route", route.getId(),
+					"priority", priority.name().toLowerCase()).increment();
+			exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+			exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+			return exchange.getResponse().setComplete();
+		}
+
+		long start = System.nanoTime();
+		return chain.filter(exchange).doFinally(signal -> {
+			HttpStatusCode status = exchange.getResponse().getStatusCode();
+			boolean failed = signal != SignalType.ON_COMPLETE || (status != null && status.is5xxServerError());
+			limiter.release(System.nanoTime() - start, failed);
+		});
+	}
+
+	@Override
+	public int getOrder() {
+		return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+	}
+
+	private AdaptiveConcurrencyLimiter newLimiter(String routeId) {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+				tolerance, backoffRatio, bulkShare);
+		Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+				.tag("route", routeId).register(meterRegistry);
+		Gauge.builder("gateway.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+				.tag("route", routeId).register(meterRegistry);
+		return limiter;
+	}
+
+	static Priority priorityOf(ServerHttpRequest request) {
+		String path = request.getURI().getPath();
+		boolean book = HttpMethod.POST.equals(request.getMethod()) && path.endsWith("/ticket/book");
+		boolean cancel = HttpMethod.DELETE.equals(request.getMethod()) && path.contains("/ticket/cancel/");
+		return book || cancel ? Priority.CRITICAL : Priority.BULK;
+	}
+}
@@ -0,0 +1,88 @@
+package com.example.gateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limit for one downstream route. The limit grows by roughly
+ * one per round trip while latency stays within {@code tolerance} of the
+ * best recently observed latency, and is cut multiplicatively when latency
+ * climbs past it or the call fails. Bulk traffic may only use
+ * {@code bulkShare} of the limit, leaving headroom for critical requests.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	/** Samples after which the latency baseline is re-learned from scratch. */
+	private static final int BASELINE_WINDOW = 1000;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double tolerance;
+	private final double backoffRatio;
+	private final double bulkShare;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private volatile double limit;
+
+	// guarded by this
+	private long minRttNanos = Long.MAX_VALUE;
+	private int samples;
+
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+			double backoffRatio, double bulkShare) {
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.tolerance = tolerance;
+		this.backoffRatio = backoffRatio;
+		this.bulkShare = bulkShare;
+	}
+
+	/**
+	 * @return true if the request may proceed; the caller must then call
+	 *         {@link #release} exactly once
+	 */
+	public boolean tryAcquire(Priority priority) {
+		int allowed = (int) (priority == Priority.CRITICAL ? limit : Math.max(1, limit * bulkShare));
+		while (true) {
+			int current = inFlight.get();
+			if (current >= allowed) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	public void release(long rttNanos, boolean failed) {
+		int inFlightAtRelease = inFlight.getAndDecrement();
+		synchronized (this) {
+			if (++samples >= BASELINE_WINDOW) {
+				samples = 0;
+				minRttNanos = rttNanos;
+			}
+			minRttNanos = Math.min(minRttNanos, rttNanos);
+
+			double next = limit;
+			if (failed || rttNanos > minRttNanos * tolerance) {
+				next = limit * backoffRatio;
+			} else if (inFlightAtRelease >= limit * bulkShare) {
+				// only grow when the current limit is actually being used
+				next = limit + 1 / limit;
+			}
+			limit = Math.max(minLimit, Math.min(maxLimit, next));
+		}
+	}
+
+	public double getLimit() {
+		return limit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public enum Priority {
+		CRITICAL, BULK
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.gateway.event;
+
+/**
+ * Mirror of flight-service's {@code com.example.event.FlightChangedEvent},
+ * published on the flight change topic.
+ */
+public class FlightChangedEvent {
+
+	public enum ChangeType {
+		CREATED, DELETED, SEATS_CHANGED
+	}
+
+	private int flightId;
+	private ChangeType changeType;
+
+	public FlightChangedEvent() {
+	}
+
+	public FlightChangedEvent(int flightId, ChangeType changeType) {
+		this.flightId = flightId;
+		this.changeType = changeType;
+	}
+
+	public int getFlightId() {
+		return flightId;
+	}
+
+	public ChangeType getChangeType() {
+		return changeType;
+	}
+}
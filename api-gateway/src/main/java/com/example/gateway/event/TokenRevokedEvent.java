@@ -0,0 +1,33 @@
+package com.example.gateway.event;
+
+/**
+ * Mirror of auth-service's {@code TokenRevokedEvent}, published on the token
+ * revocation topic.
+ */
+public class TokenRevokedEvent {
+
+	private String tokenId;
+	private String subject;
+	private long expiresAt;
+
+	public TokenRevokedEvent() {
+	}
+
+	public TokenRevokedEvent(String tokenId, String subject, long expiresAt) {
+		this.tokenId = tokenId;
+		this.subject = subject;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getTokenId() {
+		return tokenId;
+	}
+
+	public String getSubject() {
+		return subject;
+	}
+
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.gateway.ratelimit;
+
+import java.net.InetSocketAddress;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.example.gateway.security.JwtPrincipal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admission control keyed by the JWT subject, falling back to the client IP
+ * for anonymous callers such as signin/signup. Must run after
+ * {@code JwtAuthFilter} so the verified principal is on the exchange.
+ *
+ * Not a Spring bean on purpose: a WebFilter bean would also be added to the
+ * global chain and charge every request twice.
+ */
+public class RateLimitWebFilter implements WebFilter {
+
+	private final TokenBucketRateLimiter limiter;
+	private final Map<RouteClass, Counter> rejected = new EnumMap<>(RouteClass.class);
+
+	public RateLimitWebFilter(TokenBucketRateLimiter limiter, MeterRegistry meterRegistry) {
+		this.limiter = limiter;
+		for (RouteClass routeClass : RouteClass.values()) {
+			rejected.put(routeClass, Counter.builder("gateway.ratelimit.rejected")
+					.tag("class", routeClass.name().toLowerCase())
+					.register(meterRegistry));
+		}
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (HttpMethod.OPTIONS.equals(exchange.getRequest().getMethod())) {
+			return chain.filter(exchange);
+		}
+
+		RouteClass routeClass = RouteClass.of(exchange.getRequest().getURI().getPath());
+		long waitNanos = limiter.tryAcquire(routeClass, callerKey(exchange));
+		if (waitNanos == 0) {
+			return chain.filter(exchange);
+		}
+
+		rejected.get(routeClass).increment();
+		long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+		exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+		exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+		return exchange.getResponse().setComplete();
+	}
+
+	private static String callerKey(ServerWebExchange exchange) {
+		JwtPrincipal principal = exchange.getAttribute(JwtPrincipal.ATTRIBUTE);
+		if (principal != null) {
+			return "user:" + principal.getSubject();
+		}
+		InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+		return "ip:" + (remote == null ? "unknown" : remote.getAddress().getHostAddress());
+	}
+}
@@ -0,0 +1,18 @@
+package com.example.gateway.ratelimit;
+
+/**
+ * Coarse grouping of gateway paths; each class gets its own bucket per caller.
+ */
+public enum RouteClass {
+	AUTH, SEARCH, BOOKING;
+
+	public static RouteClass of(String path) {
+		if (path.contains("/api/auth/")) {
+			return AUTH;
+		}
+		if (path.startsWith("/ticket/") || path.contains("/ticket-service/")) {
+			return BOOKING;
+		}
+		return SEARCH;
+	}
+}
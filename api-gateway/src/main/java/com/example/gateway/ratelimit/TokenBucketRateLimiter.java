@@ -0,0 +1,106 @@
+package com.example.gateway.ratelimit;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process token buckets, one per (route class, caller key). Buckets live in
+ * a fixed number of lock stripes; each stripe is an access-ordered map capped
+ * at {@code gateway.ratelimit.max-keys-per-stripe}, so idle callers fall out
+ * on their own and memory stays bounded.
+ */
+@Component
+public class TokenBucketRateLimiter {
+
+	private static final int STRIPES = 64;
+
+	private final Map<RouteClass, Limit> limits = new EnumMap<>(RouteClass.class);
+	private final Stripe[] stripes = new Stripe[STRIPES];
+
+	public TokenBucketRateLimiter(
+			@Value("${gateway.ratelimit.search.capacity:60}") int searchCapacity,
+			@Value("${gateway.ratelimit.search.refill-per-second:20}") double searchRefill,
+			@Value("${gateway.ratelimit.booking.capacity:10}") int bookingCapacity,
+			@Value("${gateway.ratelimit.booking.refill-per-second:2}") double bookingRefill,
+			@Value("${gateway.ratelimit.auth.capacity:10}") int authCapacity,
+			@Value("${gateway.ratelimit.auth.refill-per-second:1}") double authRefill,
+			@Value("${gateway.ratelimit.max-keys-per-stripe:4096}") int maxKeysPerStripe) {
+		limits.put(RouteClass.SEARCH, Limit.perSecond(searchCapacity, searchRefill));
+		limits.put(RouteClass.BOOKING, Limit.perSecond(bookingCapacity, bookingRefill));
+		limits.put(RouteClass.AUTH, Limit.perSecond(authCapacity, authRefill));
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Stripe(maxKeysPerStripe);
+		}
+	}
+
+	/**
+	 * Takes one token from the caller's bucket for {@code routeClass}.
+	 *
+	 * @return 0 if the request is admitted, otherwise the nanoseconds until a
+	 *         token will be available
+	 */
+	public long tryAcquire(RouteClass routeClass, String callerKey) {
+		Limit limit = limits.get(routeClass);
+		BucketKey key = new BucketKey(routeClass, callerKey);
+		Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+		long now = System.nanoTime();
+
+		synchronized (stripe) {
+			Bucket bucket = stripe.get(key);
+			if (bucket == null) {
+				bucket = new Bucket(limit.capacity, now);
+				stripe.put(key, bucket);
+			}
+			return bucket.tryTake(limit, now);
+		}
+	}
+
+	private record BucketKey(RouteClass routeClass, String callerKey) {
+	}
+
+	private record Limit(int capacity, double refillPerNano) {
+		static Limit perSecond(int capacity, double refillPerSecond) {
+			return new Limit(capacity, refillPerSecond / 1_000_000_000d);
+		}
+	}
+
+	private static final class Bucket {
+		private double tokens;
+		private long lastRefill;
+
+		Bucket(double tokens, long now) {
+			this.tokens = tokens;
+			this.lastRefill = now;
+		}
+
+		long tryTake(Limit limit, long now) {
+			tokens = Math.min(limit.capacity, tokens + (now - lastRefill) * limit.refillPerNano);
+			lastRefill = now;
+			if (tokens >= 1) {
+				tokens -= 1;
+				return 0;
+			}
+			return (long) Math.ceil((1 - tokens) / limit.refillPerNano);
+		}
+	}
+
+	private static final class Stripe extends LinkedHashMap<BucketKey, Bucket> {
+		private static final long serialVersionUID = 1L;
+
+		private final int maxKeys;
+
+		Stripe(int maxKeys) {
+			super(16, 0.75f, true);
+			this.maxKeys = maxKeys;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<BucketKey, Bucket> eldest) {
+			return size() > maxKeys;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.gateway.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. Lookups are lock-free and allocate
+ * nothing; bits are set atomically so a reader never sees a torn word.
+ * Entries cannot be removed: build a new filter instead.
+ */
+final class BloomFilter {
+
+	private final AtomicLongArray words;
+	private final int bits;
+	private final int hashes;
+
+	/**
+	 * @param expectedEntries entries the filter is sized for
+	 * @param falsePositiveRate target false-positive rate at that size
+	 */
+	BloomFilter(int expectedEntries, double falsePositiveRate) {
+		int n = Math.max(1, expectedEntries);
+		long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+		this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+		this.words = new AtomicLongArray((bits + 63) >>> 6);
+	}
+
+	void add(String value) {
+		long hash = hash(value);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashes; i++) {
+			int bit = index(h1 + i * h2);
+			int word = bit >>> 6;
+			long mask = 1L << bit;
+			long current;
+			while (((current = words.get(word)) & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+				// retry: another bit in this word changed
+			}
+		}
+	}
+
+	boolean mightContain(String value) {
+		long hash = hash(value);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashes; i++) {
+			int bit = index(h1 + i * h2);
+			if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int index(int combined) {
+		return (combined & Integer.MAX_VALUE) % bits;
+	}
+
+	// 64-bit FNV-1a, finished with the murmur3 fmix64 avalanche
+	private static long hash(String value) {
+		long h = 0xcbf29ce484222325L;
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		for (byte b : bytes) {
+			h ^= b;
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
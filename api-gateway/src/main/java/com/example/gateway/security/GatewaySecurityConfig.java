@@ -11,14 +11,22 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 
+import com.example.gateway.ratelimit.RateLimitWebFilter;
+import com.example.gateway.ratelimit.TokenBucketRateLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 
 @Configuration
 public class GatewaySecurityConfig {
 
     private final JwtAuthFilter jwtFilter;
+    private final RateLimitWebFilter rateLimitFilter;
 
-    public GatewaySecurityConfig(JwtAuthFilter jwtFilter) {
+    public GatewaySecurityConfig(JwtAuthFilter jwtFilter, TokenBucketRateLimiter rateLimiter,
+            MeterRegistry meterRegistry) {
         this.jwtFilter = jwtFilter;
+        this.rateLimitFilter = new RateLimitWebFilter(rateLimiter, meterRegistry);
     }
 
 
@@ -44,6 +52,7 @@ public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
             .anyExchange().authenticated()
         )
         .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+        .addFilterAfter(rateLimitFilter, SecurityWebFiltersOrder.AUTHENTICATION)
         .build();
 }
 
@@ -0,0 +1,40 @@
+package com.example.gateway.security;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.identity.IdentityHeaderCodec;
+import com.example.identity.InternalIdentity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Signs the {@value IdentityHeaderCodec#HEADER} header forwarded to
+ * downstream services once the gateway has verified a JWT. The header expires
+ * with the token, so it is signed once per verified principal: entries are
+ * weakly keyed on the {@link JwtPrincipal} held by {@link VerifiedTokenCache}
+ * and go away with it.
+ */
+@Component
+public class IdentityHeaderSigner {
+
+	private final IdentityHeaderCodec codec;
+	private final Cache<JwtPrincipal, String> signed = Caffeine.newBuilder().weakKeys().build();
+
+	public IdentityHeaderSigner(@Value("${internal.identity.secret}") String secret) {
+		this.codec = new IdentityHeaderCodec(secret);
+	}
+
+	public String headerFor(JwtPrincipal principal) {
+		return signed.get(principal, p -> codec.encode(new InternalIdentity(
+				p.getSubject(), p.getRoles(), expiresAt(p), p.getUserId(), p.getEmail())));
+	}
+
+	// tokens without exp are never cached, so keep their header short-lived too
+	private static long expiresAt(JwtPrincipal principal) {
+		return principal.getExpiresAt() != null ? principal.getExpiresAt().getEpochSecond()
+				: Instant.now().plusSeconds(60).getEpochSecond();
+	}
+}
@@ -0,0 +1,142 @@
+package com.example.gateway.security;
+
+import java.security.PublicKey;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Public keys from auth-service's JWKS, indexed by {@code kid}.
+ *
+ * Lookups never touch the network: keys are fetched from every auth-service
+ * instance in the background, and each instance publishes its next key well
+ * before it starts signing with it. An unknown {@code kid} only schedules an
+ * early refresh (at most once per {@code jwt.jwks.min-refresh-interval-ms})
+ * and the token is rejected.
+ *
+ * Each refresh adds to the known keys rather than replacing them: a key is
+ * only forgotten once no instance has published it for longer than a token
+ * lives ({@code jwt.expiration}), so an instance that misses one refresh
+ * does not take the tokens it signed down with it.
+ */
+@Component
+public class JwksKeyResolver {
+
+	private static final Logger logger = LoggerFactory.getLogger(JwksKeyResolver.class);
+
+	private record Published(PublicKey key, long seenAtNanos) {
+	}
+
+	private final ReactiveDiscoveryClient discoveryClient;
+	private final WebClient webClient;
+	private final String serviceId;
+	private final String path;
+	private final long minRefreshIntervalNanos;
+	private final long retainNanos;
+
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+	private final AtomicLong lastRefreshNanos;
+	private final Map<String, Published> keys = new ConcurrentHashMap<>();
+
+	public JwksKeyResolver(ReactiveDiscoveryClient discoveryClient, WebClient.Builder webClientBuilder,
+			@Value("${jwt.jwks.service-id:AUTH-SERVICE}") String serviceId,
+			@Value("${jwt.jwks.path:/api/auth/jwks}") String path,
+			@Value("${jwt.jwks.min-refresh-interval-ms:5000}") long minRefreshIntervalMs,
+			@Value("${jwt.expiration:3600000}") long tokenLifetimeMs) {
+		this.discoveryClient = discoveryClient;
+		this.webClient = webClientBuilder.build();
+		this.serviceId = serviceId;
+		this.path = path;
+		this.minRefreshIntervalNanos = Duration.ofMillis(minRefreshIntervalMs).toNanos();
+		// tokens signed just before their key went missing, plus a minute of clock skew
+		this.retainNanos = Duration.ofMillis(tokenLifetimeMs + 60_000).toNanos();
+		this.lastRefreshNanos = new AtomicLong(System.nanoTime() - minRefreshIntervalNanos);
+	}
+
+	/**
+	 * @return the key for {@code kid}, or null if it is not (yet) known
+	 */
+	public PublicKey get(String kid) {
+		Published published = kid == null ? null : keys.get(kid);
+		PublicKey key = published == null ? null : published.key();
+		if (key == null && kid != null
+				&& System.nanoTime() - lastRefreshNanos.get() >= minRefreshIntervalNanos) {
+			refresh();
+		}
+		return key;
+	}
+
+	@Scheduled(fixedDelayString = "${jwt.jwks.refresh-ms:60000}")
+	public void refresh() {
+		if (!refreshing.compareAndSet(false, true)) {
+			return;
+		}
+		lastRefreshNanos.set(System.nanoTime());
+
+		discoveryClient.getInstances(serviceId)
+				.flatMap(this::fetch)
+				.reduce(new HashMap<String, PublicKey>(), (all, instanceKeys) -> {
+					all.putAll(instanceKeys);
+					return all;
+				})
+				.doFinally(signal -> refreshing.set(false))
+				.subscribe(fetched -> merge(fetched, System.nanoTime()),
+						ex -> logger.warn("JWKS refresh failed: {}", ex.getMessage()));
+	}
+
+	void merge(Map<String, PublicKey> fetched, long nowNanos) {
+		// keep the last known keys if no instance answered
+		if (fetched.isEmpty()) {
+			return;
+		}
+		fetched.forEach((kid, key) -> keys.put(kid, new Published(key, nowNanos)));
+		keys.values().removeIf(published -> nowNanos - published.seenAtNanos() > retainNanos);
+	}
+
+	private Mono<Map<String, PublicKey>> fetch(ServiceInstance instance) {
+		return webClient.get()
+				.uri(instance.getUri().resolve(path))
+				.retrieve()
+				.bodyToMono(String.class)
+				.timeout(Duration.ofSeconds(5))
+				.map(JwksKeyResolver::parse)
+				.onErrorResume(ex -> {
+					logger.warn("Cannot fetch JWKS from {}: {}", instance.getUri(), ex.getMessage());
+					return Mono.empty();
+				});
+	}
+
+	static Map<String, PublicKey> parse(String json) {
+		Map<String, PublicKey> parsed = new HashMap<>();
+		try {
+			for (JWK jwk : JWKSet.parse(json).getKeys()) {
+				if (jwk instanceof ECKey ec && jwk.getKeyID() != null) {
+					parsed.put(jwk.getKeyID(), ec.toECPublicKey());
+				}
+			}
+		} catch (ParseException | JOSEException ex) {
+			throw new IllegalArgumentException("Malformed JWKS", ex);
+		}
+		return parsed;
+	}
+}
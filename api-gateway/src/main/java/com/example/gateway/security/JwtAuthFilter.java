@@ -1,26 +1,27 @@
 package com.example.gateway.security;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
+import org.springframework.http.HttpCookie;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 
+import com.example.identity.IdentityHeaderCodec;
+
 import reactor.core.publisher.Mono;
 @Component
 public class JwtAuthFilter implements WebFilter {
 
     private final JwtUtil jwtUtil;
+    private final IdentityHeaderSigner identityHeaderSigner;
 
-    public JwtAuthFilter(JwtUtil jwtUtil) {
+    public JwtAuthFilter(JwtUtil jwtUtil, IdentityHeaderSigner identityHeaderSigner) {
         this.jwtUtil = jwtUtil;
+        this.identityHeaderSigner = identityHeaderSigner;
     }
 
     @Override
@@ -29,49 +30,65 @@ public class JwtAuthFilter implements WebFilter {
         String path = exchange.getRequest().getURI().getPath();
         System.out.println("GATEWAY FILTER HIT: " + exchange.getRequest().getMethod() + " " + path);
 
+        // Only the gateway may assert an identity; never pass a client's header on.
+        if (exchange.getRequest().getHeaders().containsKey(IdentityHeaderCodec.HEADER)) {
+            exchange = exchange.mutate()
+                    .request(r -> r.headers(h -> h.remove(IdentityHeaderCodec.HEADER)))
+                    .build();
+        }
         
         if (path.equals("/auth-service/api/auth/signin")
                 || path.equals("/auth-service/api/auth/signup")
-                || path.equals("/auth-service/api/auth/signout")) {
+                || path.equals("/auth-service/api/auth/signout")
+                || path.equals("/auth-service/api/auth/refresh")) {
             return chain.filter(exchange);
         }
 
-    
-        String token = null;
-        if (exchange.getRequest().getCookies().getFirst("sabiCookie") != null) {
-            token = exchange.getRequest().getCookies().getFirst("sabiCookie").getValue();
-        }
+        boolean isAuthService = path.startsWith("/auth-service/api/auth/");
 
-       
-        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-        if (token == null && authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
+        // The filter is registered both in the security chain and as a plain
+        // WebFilter, so reuse the principal if this exchange was already verified.
+        JwtPrincipal principal = exchange.getAttribute(JwtPrincipal.ATTRIBUTE);
+        if (principal == null) {
+            String token = resolveToken(exchange);
+            if (token != null) {
+                principal = jwtUtil.verify(token).orElse(null);
+            }
+            if (principal != null) {
+                exchange.getAttributes().put(JwtPrincipal.ATTRIBUTE, principal);
+            }
         }
 
-        boolean isAuthService = path.startsWith("/auth-service/api/auth/");
-
-       
-        if (!isAuthService && (token == null || !jwtUtil.validate(token))) {
+        if (!isAuthService && principal == null) {
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
             return exchange.getResponse().setComplete();
         }
 
-        if (token != null && jwtUtil.validate(token)) {
-            String username = jwtUtil.extractUsername(token);
-            List<String> roles = jwtUtil.extractRoles(token);
-
-            var authorities = roles.stream()
-                    .map(r -> r.startsWith("ROLE_") ? r : "ROLE_" + r)
-                    .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toList());
-
+        if (principal != null) {
             UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(username, null, authorities);
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
 
-            return chain.filter(exchange)
+            String identityHeader = identityHeaderSigner.headerFor(principal);
+            ServerWebExchange signed = exchange.mutate()
+                    .request(r -> r.header(IdentityHeaderCodec.HEADER, identityHeader))
+                    .build();
+            return chain.filter(signed)
                     .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
         }
 
         return chain.filter(exchange);
     }
+
+    private String resolveToken(ServerWebExchange exchange) {
+        HttpCookie cookie = exchange.getRequest().getCookies().getFirst("sabiCookie");
+        if (cookie != null) {
+            return cookie.getValue();
+        }
+
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
+    }
 }
@@ -0,0 +1,93 @@
+package com.example.gateway.security;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Result of verifying a JWT once at the edge. Stored on the exchange under
+ * {@link #ATTRIBUTE} so later filters can read the caller without re-parsing
+ * the token.
+ */
+public final class JwtPrincipal implements Principal {
+
+	public static final String ATTRIBUTE = JwtPrincipal.class.getName();
+
+	private final String subject;
+	private final String tokenId;
+	private final Long userId;
+	private final String email;
+	private final List<String> roles;
+	private final boolean forcePwdChange;
+	private final Instant expiresAt;
+	private final List<GrantedAuthority> authorities;
+
+	public JwtPrincipal(String subject, String tokenId, Long userId, String email, List<String> roles,
+			boolean forcePwdChange, Instant expiresAt) {
+		this.subject = subject;
+		this.tokenId = tokenId;
+		this.userId = userId;
+		this.email = email;
+		this.roles = List.copyOf(roles);
+		this.forcePwdChange = forcePwdChange;
+		this.expiresAt = expiresAt;
+		this.authorities = this.roles.stream()
+				.map(r -> r.startsWith("ROLE_") ? r : "ROLE_" + r)
+				.<GrantedAuthority>map(SimpleGrantedAuthority::new)
+				.toList();
+	}
+
+	@Override
+	public String getName() {
+		return subject;
+	}
+
+	public String getSubject() {
+		return subject;
+	}
+
+	/**
+	 * @return the token's {@code jti}, or null for tokens issued without one
+	 */
+	public String getTokenId() {
+		return tokenId;
+	}
+
+	/**
+	 * @return the {@code uid} claim, or null for tokens issued without one
+	 */
+	public Long getUserId() {
+		return userId;
+	}
+
+	/**
+	 * @return the {@code email} claim, or null for tokens issued without one
+	 */
+	public String getEmail() {
+		return email;
+	}
+
+	public List<String> getRoles() {
+		return roles;
+	}
+
+	public boolean isForcePwdChange() {
+		return forcePwdChange;
+	}
+
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+
+	public List<GrantedAuthority> getAuthorities() {
+		return authorities;
+	}
+
+	@Override
+	public String toString() {
+		return subject;
+	}
+}
@@ -1,56 +1,84 @@
 package com.example.gateway.security;
 
-import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.example.identity.TokenClaims;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 
 
 @Component
 public class JwtUtil {
 
-	@Value("${jwt.secret}")
-	private String jwtSecret;
-
-
-private Key getSigningKey() {
-    try {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    } catch (IllegalArgumentException ex) {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-    }
-}
+	// Built once: creating a parser per call used to dominate the gateway's
+	// CPU profile. auth-service signs with ES256 and names the key in "kid";
+	// the public keys come from its JWKS, so the gateway holds no secret.
+	private final JwtParser parser;
+	private final VerifiedTokenCache verifiedTokens;
+	private final RevokedTokens revokedTokens;
+
+	public JwtUtil(JwksKeyResolver jwks, VerifiedTokenCache verifiedTokens, RevokedTokens revokedTokens) {
+		this.parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+			@Override
+			public Key resolveSigningKey(JwsHeader header, Claims claims) {
+				Key key = jwks.get(header.getKeyId());
+				if (key == null) {
+					throw new UnsupportedJwtException("Unknown signing key: " + header.getKeyId());
+				}
+				return key;
+			}
+		}).build();
+		this.verifiedTokens = verifiedTokens;
+		this.revokedTokens = revokedTokens;
+	}
 
 	public Claims extractAllClaims(String token) {
-		return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+		return parser.parseClaimsJws(token).getBody();
 	}
-    public boolean getForcePwdChange(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
 
-        Boolean value = claims.get("forcePwdChange", Boolean.class);
-        return value != null && value;
-    }
-	public boolean validate(String token) {
+	/**
+	 * Verifies the token, skipping signature checks for tokens already seen
+	 * and still unexpired. Revocation is checked on every call, cached or not.
+	 *
+	 * @return the caller, or empty if the signature, expiry or format is
+	 *         invalid or the token was revoked
+	 */
+	public Optional<JwtPrincipal> verify(String token) {
+		return verifiedTokens.get(token, this::parse)
+				.filter(principal -> !revokedTokens.isRevoked(principal.getTokenId()));
+	}
+
+	private Optional<JwtPrincipal> parse(String token) {
+		Claims claims;
 		try {
-			extractAllClaims(token);
-			return true;
+			claims = extractAllClaims(token);
 		} catch (Exception ex) {
-			return false;
+			return Optional.empty();
 		}
+		Boolean forcePwdChange = claims.get(TokenClaims.FORCE_PASSWORD_CHANGE, Boolean.class);
+		Number userId = claims.get(TokenClaims.USER_ID, Number.class);
+		return Optional.of(new JwtPrincipal(claims.getSubject(), claims.getId(),
+				userId == null ? null : userId.longValue(), claims.get(TokenClaims.EMAIL, String.class),
+				TokenClaims.rolesOf(claims),
+				forcePwdChange != null && forcePwdChange,
+				claims.getExpiration() == null ? null : claims.getExpiration().toInstant()));
+	}
+
+	public boolean getForcePwdChange(String token) {
+		return verify(token).map(JwtPrincipal::isForcePwdChange).orElse(false);
+	}
+
+	public boolean validate(String token) {
+		return verify(token).isPresent();
 	}
 
 	public String extractUsername(String token) {
@@ -58,17 +86,6 @@ private Key getSigningKey() {
 	}
 
 	public List<String> extractRoles(String token) {
-		Claims claims = extractAllClaims(token);
-
-		Object rolesObj = claims.get("roles");
-		if (rolesObj == null)
-			return List.of();
-
-		String s = rolesObj.toString().replace("[", "").replace("]", "").replace(" ", "");
-
-		if (s.isEmpty())
-			return List.of();
-
-		return Arrays.stream(s.split(",")).collect(Collectors.toList());
+		return TokenClaims.rolesOf(extractAllClaims(token));
 	}
 }
@@ -0,0 +1,82 @@
+package com.example.gateway.security;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@code jti}s of access tokens revoked before their expiry.
+ *
+ * Almost every token is not revoked, so the check is a Bloom filter probe
+ * that answers "no" in a few nanoseconds; only on a filter hit is the exact
+ * map consulted. Entries are dropped once the token has expired anyway, and
+ * the filter is rebuilt from what is left on a schedule.
+ *
+ * No entry outlives {@code jwt.expiration}, the longest an access token
+ * lives, whatever {@code exp} a revocation carries.
+ */
+@Component
+public class RevokedTokens {
+
+	private final int expectedEntries;
+	private final double falsePositiveRate;
+	private final long maxLifetimeSeconds;
+	private final Map<String, Long> expiresAtByTokenId = new ConcurrentHashMap<>();
+	private volatile BloomFilter filter;
+
+	public RevokedTokens(@Value("${gateway.revocation.expected-entries:100000}") int expectedEntries,
+			@Value("${gateway.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+			@Value("${jwt.expiration:3600000}") long maxTokenLifetimeMs, MeterRegistry meterRegistry) {
+		this.expectedEntries = expectedEntries;
+		this.falsePositiveRate = falsePositiveRate;
+		this.maxLifetimeSeconds = maxTokenLifetimeMs / 1000;
+		this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+		Gauge.builder("gateway.revocation.entries", expiresAtByTokenId, Map::size).register(meterRegistry);
+	}
+
+	public boolean isRevoked(String tokenId) {
+		if (tokenId == null || !filter.mightContain(tokenId)) {
+			return false;
+		}
+		Long expiresAt = expiresAtByTokenId.get(tokenId);
+		return expiresAt != null && expiresAt > Instant.now().getEpochSecond();
+	}
+
+	/**
+	 * @param expiresAtEpochSecond the token's {@code exp}; the entry is kept
+	 *                             until then, or one token lifetime from now
+	 *                             if that is sooner
+	 */
+	public synchronized void revoke(String tokenId, long expiresAtEpochSecond) {
+		long now = Instant.now().getEpochSecond();
+		if (expiresAtEpochSecond <= now) {
+			return;
+		}
+		long keepUntil = Math.min(expiresAtEpochSecond, now + maxLifetimeSeconds);
+		// map first: a reader that passes the filter must find the entry
+		expiresAtByTokenId.merge(tokenId, keepUntil, Math::max);
+		filter.add(tokenId);
+	}
+
+	/**
+	 * Drops expired entries and rebuilds the filter from the rest, so its
+	 * false-positive rate does not grow with every revocation ever seen.
+	 */
+	@Scheduled(fixedDelayString = "${gateway.revocation.rebuild-ms:60000}")
+	public synchronized void rebuild() {
+		long now = Instant.now().getEpochSecond();
+		expiresAtByTokenId.values().removeIf(expiresAt -> expiresAt <= now);
+
+		BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, expiresAtByTokenId.size() * 2),
+				falsePositiveRate);
+		expiresAtByTokenId.keySet().forEach(rebuilt::add);
+		filter = rebuilt;
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.gateway.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.example.gateway.event.TokenRevokedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Feeds auth-service's revocations into {@link RevokedTokens}. Each gateway
+ * instance uses its own consumer group and starts from the earliest offset,
+ * so a fresh instance learns every revocation that may still matter; entries
+ * for already expired tokens are skipped.
+ */
+@Component
+public class TokenRevocationListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(TokenRevocationListener.class);
+
+	private final RevokedTokens revokedTokens;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public TokenRevocationListener(RevokedTokens revokedTokens) {
+		this.revokedTokens = revokedTokens;
+	}
+
+	@KafkaListener(topics = "${gateway.revocation.topic:token-revocations}",
+			groupId = "api-gateway-revocations-#{T(java.util.UUID).randomUUID()}",
+			properties = "auto.offset.reset=earliest")
+	public void onTokenRevoked(String payload) {
+		try {
+			TokenRevokedEvent event = objectMapper.readValue(payload, TokenRevokedEvent.class);
+			if (event.getTokenId() != null) {
+				revokedTokens.revoke(event.getTokenId(), event.getExpiresAt());
+			}
+		} catch (Exception ex) {
+			logger.warn("Ignoring malformed token revocation {}: {}", payload, ex.getMessage());
+		}
+	}
+}
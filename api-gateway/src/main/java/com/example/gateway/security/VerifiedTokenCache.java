@@ -0,0 +1,88 @@
+package com.example.gateway.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size-bounded cache of already verified tokens, keyed by the SHA-256 of the
+ * raw token so the JWT itself is never held as a key. Each entry expires at
+ * the token's own {@code exp}; hit, miss and eviction counts are published as
+ * {@code cache.*} meters with {@code cache=jwt.verified}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	});
+
+	private final Cache<ByteBuffer, JwtPrincipal> cache;
+
+	public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize, MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new UntilTokenExpiry())
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+	}
+
+	/**
+	 * Returns the cached principal for {@code token}, or runs {@code verifier}
+	 * and caches its result. Rejected tokens and tokens without an expiry are
+	 * never cached.
+	 */
+	public Optional<JwtPrincipal> get(String token, Function<String, Optional<JwtPrincipal>> verifier) {
+		ByteBuffer key = digest(token);
+		JwtPrincipal cached = cache.getIfPresent(key);
+		if (cached != null) {
+			return Optional.of(cached);
+		}
+
+		Optional<JwtPrincipal> verified = verifier.apply(token);
+		verified.filter(p -> p.getExpiresAt() != null).ifPresent(p -> cache.put(key, p));
+		return verified;
+	}
+
+	private static ByteBuffer digest(String token) {
+		return ByteBuffer.wrap(SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	private static final class UntilTokenExpiry implements Expiry<ByteBuffer, JwtPrincipal> {
+
+		@Override
+		public long expireAfterCreate(ByteBuffer key, JwtPrincipal value, long currentTime) {
+			return Math.max(0, Duration.between(Instant.now(), value.getExpiresAt()).toNanos());
+		}
+
+		@Override
+		public long expireAfterUpdate(ByteBuffer key, JwtPrincipal value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+
+		@Override
+		public long expireAfterRead(ByteBuffer key, JwtPrincipal value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
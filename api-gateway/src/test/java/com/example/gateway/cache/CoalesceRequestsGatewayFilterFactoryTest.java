@@ -0,0 +1,57 @@
+package com.example.gateway.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class CoalesceRequestsGatewayFilterFactoryTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final GatewayFilter filter = new CoalesceRequestsGatewayFilterFactory(meterRegistry).apply(new Object());
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+	private final GatewayFilterChain slowUpstream = exchange -> {
+		upstreamCalls.incrementAndGet();
+		exchange.getResponse().setStatusCode(HttpStatus.OK);
+		byte[] body = "{\"flightId\":1}".getBytes(StandardCharsets.UTF_8);
+		return Mono.delay(Duration.ofMillis(100))
+				.then(exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body))));
+	};
+
+	@Test
+	void testConcurrentIdenticalGetsShareOneUpstreamCall() {
+		MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/flight/getFlightById/1"));
+		MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/flight/getFlightById/1"));
+
+		Mono.when(filter.filter(first, slowUpstream), filter.filter(second, slowUpstream)).block();
+
+		assertEquals(1, upstreamCalls.get());
+		assertEquals("{\"flightId\":1}", first.getResponse().getBodyAsString().block());
+		assertEquals("{\"flightId\":1}", second.getResponse().getBodyAsString().block());
+		assertEquals(1, meterRegistry.counter("gateway.coalesce.merged", "route", "unknown").count());
+	}
+
+	@Test
+	void testDifferentBodiesAreNotMerged() {
+		MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest
+				.post("/flight/getByOriginDestinationDateTime").body("{\"origin\":\"DEL\"}"));
+		MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest
+				.post("/flight/getByOriginDestinationDateTime").body("{\"origin\":\"HYD\"}"));
+
+		Mono.when(filter.filter(first, slowUpstream), filter.filter(second, slowUpstream)).block();
+
+		assertEquals(2, upstreamCalls.get());
+	}
+}
@@ -0,0 +1,141 @@
+package com.example.gateway.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResponseCacheTest {
+
+	private static final Duration TTL = Duration.ofSeconds(5);
+
+	private final AtomicLong clock = new AtomicLong();
+	private final ResponseCache cache = new ResponseCache(64 * 1024, new SimpleMeterRegistry(), clock::get);
+
+	@Test
+	void testEntriesExpireAfterTheirTtl() {
+		cache.put("GET /flight/1", json("{\"flightId\":1}"), TTL, cache.generation());
+
+		advanceSeconds(4);
+		assertNotNull(cache.get("GET /flight/1"));
+
+		advanceSeconds(2);
+		assertNull(cache.get("GET /flight/1"));
+		cache.cleanUp();
+		assertEquals(0, cache.indexedKeys());
+	}
+
+	// re-storing a key must not stretch the TTL of what another request stored
+	@Test
+	void testRestoringAKeyKeepsTheNewEntrysOwnTtl() {
+		cache.put("GET /flight/1", json("{\"flightId\":1}"), TTL, cache.generation());
+		advanceSeconds(4);
+		cache.put("GET /flight/1", json("{\"flightId\":1}"), Duration.ofSeconds(1), cache.generation());
+
+		advanceSeconds(2);
+		assertNull(cache.get("GET /flight/1"));
+	}
+
+	@Test
+	void testMemoryBoundEvictsAndUnindexes() {
+		ResponseCache small = new ResponseCache(2_000, new SimpleMeterRegistry(), clock::get);
+		String padding = "x".repeat(180);
+		IntStream.range(0, 50).forEach(i -> small.put("GET /flight/" + i,
+				json("{\"flightId\":" + i + ",\"note\":\"" + padding + "\"}"), TTL, small.generation()));
+		small.cleanUp();
+
+		long cached = IntStream.range(0, 50).filter(i -> small.get("GET /flight/" + i) != null).count();
+		assertTrue(cached > 0 && cached <= 10, "cached " + cached);
+		assertEquals(cached, small.indexedKeys());
+	}
+
+	@Test
+	void testInvalidateFlightDropsOnlyResponsesContainingIt() {
+		cache.put("GET /flight/1", json("{\"flightId\":1}"), TTL, cache.generation());
+		cache.put("GET /flight/2", json("{\"flightId\":2}"), TTL, cache.generation());
+		cache.put("POST /flight/search#a", json("[{\"flightId\":1},{\"flightId\":2}]"), TTL, cache.generation());
+		cache.put("POST /flight/search#b", json("[{\"flightId\":3}]"), TTL, cache.generation());
+
+		cache.invalidateFlight(1);
+
+		assertNull(cache.get("GET /flight/1"));
+		assertNull(cache.get("POST /flight/search#a"));
+		assertNotNull(cache.get("GET /flight/2"));
+		assertNotNull(cache.get("POST /flight/search#b"));
+		// flight 2's key, flight 3's key and the remaining list
+		assertEquals(3, cache.indexedKeys());
+	}
+
+	@Test
+	void testInvalidateListsKeepsSingleFlights() {
+		cache.put("GET /flight/1", json("{\"flightId\":1}"), TTL, cache.generation());
+		cache.put("POST /flight/search#a", json("[{\"flightId\":1}]"), TTL, cache.generation());
+		cache.put("POST /flight/search#empty", json("[]"), TTL, cache.generation());
+
+		cache.invalidateLists();
+
+		assertNotNull(cache.get("GET /flight/1"));
+		assertNull(cache.get("POST /flight/search#a"));
+		assertNull(cache.get("POST /flight/search#empty"));
+	}
+
+	// responses fetched while their flight changed may predate the change
+	@Test
+	void testResponseFetchedAcrossAChangeToItsFlightIsNotStored() {
+		long started = cache.generation();
+		cache.invalidateFlight(1);
+
+		cache.put("GET /flight/1", json("{\"flightId\":1}"), TTL, started);
+		cache.put("GET /flight/2", json("{\"flightId\":2}"), TTL, started);
+
+		assertNull(cache.get("GET /flight/1"));
+		assertNotNull(cache.get("GET /flight/2"));
+	}
+
+	@Test
+	void testListFetchedAcrossAListInvalidationIsNotStored() {
+		long started = cache.generation();
+		cache.invalidateLists();
+
+		cache.put("POST /flight/search#a", json("[{\"flightId\":1}]"), TTL, started);
+		cache.put("GET /flight/1", json("{\"flightId\":1}"), TTL, started);
+
+		assertNull(cache.get("POST /flight/search#a"));
+		assertNotNull(cache.get("GET /flight/1"));
+	}
+
+	@Test
+	void testErrorsAndPersonalisedResponsesAreNotStored() {
+		cache.put("GET /flight/1", new CachedResponse(HttpStatus.SERVICE_UNAVAILABLE, new HttpHeaders(),
+				"{}".getBytes(StandardCharsets.UTF_8)), TTL, cache.generation());
+		HttpHeaders withCookie = new HttpHeaders();
+		withCookie.add(HttpHeaders.SET_COOKIE, "session=1");
+		cache.put("GET /flight/2", new CachedResponse(HttpStatus.OK, withCookie,
+				"{\"flightId\":2}".getBytes(StandardCharsets.UTF_8)), TTL, cache.generation());
+
+		assertNull(cache.get("GET /flight/1"));
+		assertNull(cache.get("GET /flight/2"));
+	}
+
+	private static CachedResponse json(String body) {
+		return new CachedResponse(HttpStatusCode.valueOf(200), new HttpHeaders(),
+				body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void advanceSeconds(long seconds) {
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.gateway.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.gateway.concurrency.AdaptiveConcurrencyLimiter.Priority;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	@Test
+	void testBulkTrafficLeavesHeadroomForCritical() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 2.0, 0.5, 0.8);
+
+		for (int i = 0; i < 8; i++) {
+			assertTrue(limiter.tryAcquire(Priority.BULK));
+		}
+		assertFalse(limiter.tryAcquire(Priority.BULK));
+
+		assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+		assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+		assertFalse(limiter.tryAcquire(Priority.CRITICAL));
+	}
+
+	@Test
+	void testLimitBacksOffOnSlowOrFailedCalls() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 2.0, 0.5, 0.8);
+
+		limiter.tryAcquire(Priority.BULK);
+		limiter.release(1_000_000, false);
+		assertEquals(10, limiter.getLimit());
+
+		limiter.tryAcquire(Priority.BULK);
+		limiter.release(10_000_000, false);
+		assertEquals(5, limiter.getLimit());
+
+		limiter.tryAcquire(Priority.BULK);
+		limiter.release(1_000_000, true);
+		assertEquals(2.5, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+}
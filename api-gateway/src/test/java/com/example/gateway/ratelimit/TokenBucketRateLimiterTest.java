@@ -0,0 +1,37 @@
+package com.example.gateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+	private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1, 2, 1, 1, 1, 16);
+
+	@Test
+	void testRejectsOnceBurstIsSpent() {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire(RouteClass.SEARCH, "user:alice"));
+		}
+
+		long wait = limiter.tryAcquire(RouteClass.SEARCH, "user:alice");
+		assertTrue(wait > 0 && wait <= 1_000_000_000L);
+	}
+
+	@Test
+	void testBucketsAreSeparatePerCallerAndRouteClass() {
+		assertEquals(0, limiter.tryAcquire(RouteClass.AUTH, "ip:10.0.0.1"));
+		assertTrue(limiter.tryAcquire(RouteClass.AUTH, "ip:10.0.0.1") > 0);
+
+		assertEquals(0, limiter.tryAcquire(RouteClass.AUTH, "ip:10.0.0.2"));
+		assertEquals(0, limiter.tryAcquire(RouteClass.BOOKING, "ip:10.0.0.1"));
+	}
+
+	@Test
+	void testRouteClassOf() {
+		assertEquals(RouteClass.AUTH, RouteClass.of("/auth-service/api/auth/signin"));
+		assertEquals(RouteClass.BOOKING, RouteClass.of("/ticket/book"));
+		assertEquals(RouteClass.SEARCH, RouteClass.of("/flight/getAllFlights"));
+	}
+}
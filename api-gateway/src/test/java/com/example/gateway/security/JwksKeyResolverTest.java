@@ -0,0 +1,63 @@
+package com.example.gateway.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import reactor.core.publisher.Flux;
+
+class JwksKeyResolverTest {
+
+	private static final long TOKEN_LIFETIME_MS = 60_000;
+
+	private final ReactiveDiscoveryClient discoveryClient = mock(ReactiveDiscoveryClient.class);
+	private final JwksKeyResolver resolver = new JwksKeyResolver(discoveryClient, WebClient.builder(),
+			"AUTH-SERVICE", "/api/auth/jwks", 5_000, TOKEN_LIFETIME_MS);
+	private final PublicKey instanceA = Keys.keyPairFor(SignatureAlgorithm.ES256).getPublic();
+	private final PublicKey instanceB = Keys.keyPairFor(SignatureAlgorithm.ES256).getPublic();
+
+	@BeforeEach
+	void setUp() {
+		// the test drives every merge itself; a lookup miss finds no instances
+		when(discoveryClient.getInstances("AUTH-SERVICE")).thenReturn(Flux.empty());
+	}
+
+	// instance A did not answer the second refresh
+	@Test
+	void testKeepsKeysOfAnInstanceThatMissedARefresh() {
+		resolver.merge(Map.of("a", instanceA, "b", instanceB), 0);
+		resolver.merge(Map.of("b", instanceB), Duration.ofSeconds(30).toNanos());
+
+		assertEquals(instanceA, resolver.get("a"));
+		assertEquals(instanceB, resolver.get("b"));
+	}
+
+	@Test
+	void testForgetsKeysMissingForLongerThanATokenLives() {
+		resolver.merge(Map.of("a", instanceA, "b", instanceB), 0);
+		resolver.merge(Map.of("b", instanceB), Duration.ofMillis(TOKEN_LIFETIME_MS + 61_000).toNanos());
+
+		assertNull(resolver.get("a"));
+		assertEquals(instanceB, resolver.get("b"));
+	}
+
+	@Test
+	void testKeepsEverythingWhenNoInstanceAnswers() {
+		resolver.merge(Map.of("a", instanceA), 0);
+		resolver.merge(Map.of(), Duration.ofDays(1).toNanos());
+
+		assertEquals(instanceA, resolver.get("a"));
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.gateway.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtUtilTest {
+
+	private final KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+	private final JwksKeyResolver jwks = mock(JwksKeyResolver.class);
+	private final RevokedTokens revokedTokens = new RevokedTokens(100, 0.01, 3_600_000, new SimpleMeterRegistry());
+	private final JwtUtil jwtUtil = new JwtUtil(jwks, new VerifiedTokenCache(100, new SimpleMeterRegistry()),
+			revokedTokens);
+
+	@Test
+	void testVerifiesTokenSignedWithPublishedKey() {
+		String jwksJson = new JWKSet(new ECKey.Builder(Curve.P_256, (ECPublicKey) keyPair.getPublic())
+				.keyID("k1").build()).toString();
+		when(jwks.get("k1")).thenReturn(JwksKeyResolver.parse(jwksJson).get("k1"));
+
+		JwtPrincipal principal = jwtUtil.verify(token("k1")).orElseThrow();
+
+		assertEquals("alice", principal.getSubject());
+		assertEquals(List.of("ROLE_USER"), principal.getRoles());
+	}
+
+	@Test
+	void testRejectsRevokedTokenEvenWhenCached() {
+		when(jwks.get("k1")).thenReturn(keyPair.getPublic());
+		String token = token("k1");
+		assertTrue(jwtUtil.verify(token).isPresent());
+
+		revokedTokens.revoke("jti-1", System.currentTimeMillis() / 1000 + 60);
+
+		assertTrue(jwtUtil.verify(token).isEmpty());
+	}
+
+	@Test
+	void testRejectsUnknownKid() {
+		assertTrue(jwtUtil.verify(token("unknown")).isEmpty());
+	}
+
+	private String token(String kid) {
+		return Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, kid)
+				.setId("jti-1")
+				.setSubject("alice")
+				.claim("roles", List.of("ROLE_USER"))
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+				.compact();
+	}
+}
@@ -0,0 +1,64 @@
+package com.example.gateway.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RevokedTokensTest {
+
+	private final RevokedTokens revokedTokens = new RevokedTokens(1000, 0.01, 3_600_000, new SimpleMeterRegistry());
+
+	@Test
+	void testRevokedUntilExpiry() {
+		long now = Instant.now().getEpochSecond();
+		revokedTokens.revoke("a", now + 60);
+		revokedTokens.revoke("b", now - 1);
+
+		assertTrue(revokedTokens.isRevoked("a"));
+		assertFalse(revokedTokens.isRevoked("b"));
+		assertFalse(revokedTokens.isRevoked("c"));
+		assertFalse(revokedTokens.isRevoked(null));
+	}
+
+	@Test
+	void testRetentionIsCappedAtOneTokenLifetime() throws InterruptedException {
+		RevokedTokens shortLived = new RevokedTokens(1000, 0.01, 1_000, new SimpleMeterRegistry());
+		shortLived.revoke("forged", Instant.now().getEpochSecond() + 365L * 24 * 3600);
+		assertTrue(shortLived.isRevoked("forged"));
+
+		// a year-long exp is kept for one second, not a year
+		Thread.sleep(2100);
+		shortLived.rebuild();
+		assertFalse(shortLived.isRevoked("forged"));
+	}
+
+	@Test
+	void testRebuildKeepsLiveEntries() {
+		revokedTokens.revoke("a", Instant.now().getEpochSecond() + 60);
+
+		revokedTokens.rebuild();
+
+		assertTrue(revokedTokens.isRevoked("a"));
+	}
+
+	@Test
+	void testBloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add("jti-" + i);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("jti-" + i));
+			if (filter.mightContain("other-" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.authservice;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.authservice.payload.response.MessageResponse;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+	// the password hashing pool is saturated (signin, signup or password
+	// change alike); ask the client to come back
+	@ExceptionHandler(RejectedExecutionException.class)
+	public ResponseEntity<MessageResponse> handleHashingOverload(RejectedExecutionException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(new MessageResponse("Error: The service is busy, please retry shortly"));
+	}
+}
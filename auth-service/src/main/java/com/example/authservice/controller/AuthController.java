@@ -1,15 +1,18 @@
 package com.example.authservice.controller;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import com.example.authservice.models.ChangePasswordRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
@@ -27,18 +30,23 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.authservice.models.ERole;
-import com.example.authservice.models.Role;
 import com.example.authservice.models.User;
 import com.example.authservice.payload.request.LoginRequest;
 import com.example.authservice.payload.request.SignupRequest;
 import com.example.authservice.payload.response.MessageResponse;
 import com.example.authservice.payload.response.UserInfoResponse;
-import com.example.authservice.repository.RoleRepository;
 import com.example.authservice.repository.UserRepository;
 import com.example.authservice.security.jwt.JwtUtils;
+import com.example.authservice.security.services.LoginAttemptThrottler;
+import com.example.authservice.security.services.PasswordHashingExecutor;
+import com.example.authservice.security.services.PasswordRehashService;
+import com.example.authservice.security.services.RefreshTokenService;
+import com.example.authservice.security.services.RoleCache;
+import com.example.authservice.security.services.TokenRevocationPublisher;
+import com.example.authservice.security.services.UserDetailsCache;
 import com.example.authservice.security.services.UserDetailsImpl;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -52,7 +60,7 @@ public class AuthController {
 	UserRepository userRepository;
 
 	@Autowired
-	RoleRepository roleRepository;
+	RoleCache roleCache;
 
 	@Autowired 
 	PasswordEncoder encoder;
@@ -60,32 +68,79 @@ public class AuthController {
 	@Autowired
 	JwtUtils jwtUtils;
 
+	@Autowired
+	RefreshTokenService refreshTokenService;
+
+	@Autowired
+	TokenRevocationPublisher tokenRevocationPublisher;
+
+	@Autowired
+	UserDetailsCache userDetailsCache;
+
+	@Autowired
+	PasswordHashingExecutor passwordHashing;
+
+	@Autowired
+	PasswordRehashService passwordRehashService;
+
+	@Autowired
+	LoginAttemptThrottler loginThrottler;
+
+	// continues requests after their BCrypt work, so the hashing pool only hashes
+	@Autowired
+	@Qualifier("applicationTaskExecutor")
+	AsyncTaskExecutor requestExecutor;
+
     
+    private record PasswordChange(String error, String encoded) {
+    }
+
     @PostMapping("/change-password")
-    public ResponseEntity<?> changePassword(
+    public CompletableFuture<ResponseEntity<?>> changePassword(
             Authentication authentication,
-            @Valid @RequestBody ChangePasswordRequest request) {
+            @Valid @RequestBody ChangePasswordRequest request,
+            HttpServletRequest httpRequest) {
         System.out.println("CONTROLLER HIT: change-password");
         String username = authentication.getName();
+        String accessToken = jwtUtils.getJwtFromCookies(httpRequest);
 
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findWithRolesByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!encoder.matches(request.getOldPassword(), user.getPassword())) {
-            return ResponseEntity.badRequest().body("Error: Old password is incorrect");
-        }
-
-        if (encoder.matches(request.getNewPassword(), user.getPassword())) {
-            return ResponseEntity.badRequest().body("Error: New password must be different");
-        }
+        // all three BCrypt operations run on the hashing pool, the rest does not
+        return passwordHashing.submit(() -> {
+            if (!encoder.matches(request.getOldPassword(), user.getPassword())) {
+                return new PasswordChange("Error: Old password is incorrect", null);
+            }
+            if (encoder.matches(request.getNewPassword(), user.getPassword())) {
+                return new PasswordChange("Error: New password must be different", null);
+            }
+            return new PasswordChange(null, encoder.encode(request.getNewPassword()));
+        }).thenApplyAsync(change -> {
+            if (change.error() != null) {
+                return ResponseEntity.badRequest().body(change.error());
+            }
 
-        user.setPassword(encoder.encode(request.getNewPassword()));
-        user.setPasswordLastChangedAt(LocalDateTime.now());
-        user.setForcePasswordChange(false);
+            user.setPassword(change.encoded());
+            user.setPasswordLastChangedAt(LocalDateTime.now());
+            user.setForcePasswordChange(false);
 
-        userRepository.save(user);
+            userRepository.save(user);
 
-        return ResponseEntity.ok("Password changed successfully");
+            // Sessions opened with the old password end here; this one continues
+            // with a fresh token pair.
+            if (accessToken != null) {
+                tokenRevocationPublisher.revoke(accessToken);
+            }
+            refreshTokenService.revokeAll(username);
+            userDetailsCache.evict(username);
+
+            ResponseCookie jwtCookie = jwtUtils.generateJwtCookie(UserDetailsImpl.build(user), false);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, jwtCookie.toString())
+                    .header(HttpHeaders.SET_COOKIE, refreshCookie(username).toString())
+                    .body("Password changed successfully");
+        }, requestExecutor);
     }
 
 
@@ -104,24 +159,35 @@ public class AuthController {
 	}
 
 	@PostMapping("/signin")
-	public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-		try {
-			Authentication authentication = authenticationManager.authenticate(
-					new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+	public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+			HttpServletRequest httpRequest) {
+		String clientIp = loginThrottler.clientIp(httpRequest);
+		long retryAfter = loginThrottler.retryAfterSeconds(loginRequest.getUsername(), clientIp);
+		if (retryAfter > 0) {
+			// locked out: answer before any BCrypt work is queued
+			return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+					.header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+					.body(new MessageResponse("Error: Too many failed sign-in attempts, please retry later")));
+		}
 
+		// the user lookup and BCrypt check run on the hashing pool (the provider
+		// interleaves them); everything after continues on the request executor
+		return passwordHashing.submit(() -> authenticationManager.authenticate(
+				new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())))
+				.<ResponseEntity<?>>thenApplyAsync(authentication -> {
+			// the principal was loaded with its roles in one query; reuse it
 			UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User user = userRepository.findById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            if (user.isPasswordExpired()) {
-                user.setForcePasswordChange(true);
-                userRepository.save(user);
+			loginThrottler.recordSuccess(userDetails.getUsername());
+			passwordRehashService.rehashIfNeeded(userDetails, loginRequest.getPassword());
 
+            // PasswordExpirySweeper sets the flag; signin only reads it
+            if (userDetails.isForcePasswordChange()) {
                 ResponseCookie jwtCookie =
                         jwtUtils.generateJwtCookie(userDetails, true);
 
                 return ResponseEntity.ok()
                         .header(HttpHeaders.SET_COOKIE, jwtCookie.toString())
+                        .header(HttpHeaders.SET_COOKIE, refreshCookie(userDetails.getUsername()).toString())
                         .body(Map.of(
                                 "status", "PASSWORD_EXPIRED",
                                 "message", "Please change your password",
@@ -129,75 +195,125 @@ public class AuthController {
                         ));
             }
 
-			ResponseCookie jwtCookie = jwtUtils.generateJwtCookie(userDetails,user.isForcePasswordChange());
+			ResponseCookie jwtCookie = jwtUtils.generateJwtCookie(userDetails, false);
 
 			List<String> roles = userDetails.getAuthorities().stream().map(a -> a.getAuthority())
 					.collect(Collectors.toList());
 
-			return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, jwtCookie.toString()).body(new UserInfoResponse(
-					userDetails.getId(), userDetails.getUsername(), userDetails.getEmail(), roles));
+			return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, jwtCookie.toString())
+					.header(HttpHeaders.SET_COOKIE, refreshCookie(userDetails.getUsername()).toString())
+					.body(new UserInfoResponse(userDetails.getId(), userDetails.getUsername(), userDetails.getEmail(), roles));
+
+		}, requestExecutor).exceptionallyAsync(ex -> {
+			if (ex instanceof CompletionException && ex.getCause() instanceof BadCredentialsException) {
+				loginThrottler.recordFailure(loginRequest.getUsername(), clientIp);
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid username or password");
+			}
+			throw ex instanceof CompletionException ce ? ce : new CompletionException(ex);
+		}, requestExecutor);
+	}
+
+	private ResponseCookie refreshCookie(String username) {
+		RefreshTokenService.Issued issued = refreshTokenService.issue(username);
+		return jwtUtils.generateRefreshCookie(issued.token(), refreshTokenService.getLifetime());
+	}
 
-		} catch (BadCredentialsException e) {
-			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid username or password");
+	/**
+	 * Renews the access token from the refresh-token cookie without checking
+	 * the password again. The refresh token itself is rotated.
+	 */
+	@PostMapping("/refresh")
+	public ResponseEntity<?> refreshToken(HttpServletRequest request) {
+		String presented = jwtUtils.getRefreshTokenFromCookies(request);
+		RefreshTokenService.Issued issued = presented == null ? null
+				: refreshTokenService.rotate(presented).orElse(null);
+		User user = issued == null ? null : userRepository.findWithRolesByUsername(issued.username()).orElse(null);
+
+		if (user == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+					.header(HttpHeaders.SET_COOKIE, jwtUtils.getCleanJwtCookie().toString())
+					.header(HttpHeaders.SET_COOKIE, jwtUtils.getCleanRefreshCookie().toString())
+					.body(new MessageResponse("Error: Refresh token is invalid or expired"));
 		}
+
+		UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+		ResponseCookie jwtCookie = jwtUtils.generateJwtCookie(userDetails, user.isForcePasswordChange());
+		ResponseCookie refreshCookie = jwtUtils.generateRefreshCookie(issued.token(), refreshTokenService.getLifetime());
+
+		List<String> roles = userDetails.getAuthorities().stream().map(a -> a.getAuthority())
+				.collect(Collectors.toList());
+
+		return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, jwtCookie.toString())
+				.header(HttpHeaders.SET_COOKIE, refreshCookie.toString())
+				.body(new UserInfoResponse(userDetails.getId(), userDetails.getUsername(), userDetails.getEmail(), roles));
 	}
 
 	@PostMapping("/signup")
-	public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+	public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
 
-		if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-			return ResponseEntity.badRequest().body(new MessageResponse("Error: Username already taken"));
-		}
-
-		if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-			return ResponseEntity.badRequest().body(new MessageResponse("Error: Email already in use"));
+		String conflict = signupConflict(signUpRequest);
+		if (conflict != null) {
+			return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(new MessageResponse(conflict)));
 		}
 		System.out.println("Incoming roles: " + signUpRequest.getRoles());
 
+		return passwordHashing.submit(() -> encoder.encode(signUpRequest.getPassword()))
+				.thenApplyAsync(encodedPassword -> saveNewUser(signUpRequest, encodedPassword), requestExecutor);
+	}
+
+	private ResponseEntity<?> saveNewUser(SignupRequest signUpRequest, String encodedPassword) {
         User user = new User(
                 signUpRequest.getUsername(),
                 signUpRequest.getEmail(),
-                encoder.encode(signUpRequest.getPassword())
+                encodedPassword
         );
 
         user.setPasswordLastChangedAt(LocalDateTime.now());
         user.setForcePasswordChange(false);
 
-		Set<String> strRoles = signUpRequest.getRoles();
-		Set<Role> roles = new HashSet<>();
-
-		if (strRoles == null || strRoles.isEmpty()) {
-			// default -> USER
-			Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-					.orElseThrow(() -> new RuntimeException("Error: Role USER not found"));
-			roles.add(userRole);
-		} else {
-			strRoles.forEach(role -> {
-				switch (role.toLowerCase()) {
-				case "admin":
-					Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-							.orElseThrow(() -> new RuntimeException("Error: Role ADMIN not found"));
-					roles.add(adminRole);
-					break;
-
-				default:
-					Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-							.orElseThrow(() -> new RuntimeException("Error: Role USER not found"));
-					roles.add(userRole);
-				}
-			});
+		user.setRoles(roleCache.resolve(signUpRequest.getRoles()));
+		try {
+			userRepository.save(user);
+		} catch (DataIntegrityViolationException ex) {
+			// lost a race with a concurrent signup; report it like the up-front check
+			String conflict = signupConflict(signUpRequest);
+			if (conflict == null) {
+				throw ex;
+			}
+			return ResponseEntity.badRequest().body(new MessageResponse(conflict));
 		}
 
-		user.setRoles(roles);
-		userRepository.save(user);
-
 		return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
 	}
 
+	private String signupConflict(SignupRequest signUpRequest) {
+		List<UserRepository.UsernameAndEmail> existing = userRepository
+				.findByUsernameOrEmail(signUpRequest.getUsername(), signUpRequest.getEmail());
+		for (UserRepository.UsernameAndEmail user : existing) {
+			// compared as the query compares; a row with another email can
+			// only have matched on the username, whatever the collation
+			if (user.getUsername().equals(signUpRequest.getUsername())
+					|| !user.getEmail().equalsIgnoreCase(signUpRequest.getEmail())) {
+				return "Error: Username already taken";
+			}
+		}
+		return existing.isEmpty() ? null : "Error: Email already in use";
+	}
+
 	@PostMapping("/signout")
-	public ResponseEntity<?> logoutUser() {
+	public ResponseEntity<?> logoutUser(HttpServletRequest request) {
+		String refreshToken = jwtUtils.getRefreshTokenFromCookies(request);
+		if (refreshToken != null) {
+			refreshTokenService.revoke(refreshToken);
+		}
+		String accessToken = jwtUtils.getJwtFromCookies(request);
+		if (accessToken != null) {
+			tokenRevocationPublisher.revoke(accessToken);
+		}
+
 		ResponseCookie cleanCookie = jwtUtils.getCleanJwtCookie();
 		return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cleanCookie.toString())
+				.header(HttpHeaders.SET_COOKIE, jwtUtils.getCleanRefreshCookie().toString())
 				.body(new MessageResponse("You've been signed out!"));
 	}
 }
@@ -0,0 +1,30 @@
+package com.example.authservice.controller;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.authservice.security.jwt.JwtSigningKeys;
+
+@RestController
+@RequestMapping("/api/auth")
+public class JwksController {
+
+	private final JwtSigningKeys signingKeys;
+
+	public JwksController(JwtSigningKeys signingKeys) {
+		this.signingKeys = signingKeys;
+	}
+
+	@GetMapping("/jwks")
+	public ResponseEntity<Map<String, Object>> jwks() {
+		return ResponseEntity.ok()
+				.cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS))
+				.body(signingKeys.jwks());
+	}
+}
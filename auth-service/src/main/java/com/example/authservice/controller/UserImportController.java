@@ -0,0 +1,43 @@
+package com.example.authservice.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.authservice.payload.response.UserImportResponse;
+import com.example.authservice.security.services.UserImportService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Admin-only bulk user import. The body is streamed, never held in memory
+ * as a whole; see {@link UserImportService} for the formats.
+ */
+@RestController
+@RequestMapping("/api/auth/admin/users")
+@PreAuthorize("hasRole('ADMIN')")
+public class UserImportController {
+
+	@Autowired
+	UserImportService userImportService;
+
+	@PostMapping(value = "/import", consumes = "application/x-ndjson")
+	public ResponseEntity<UserImportResponse> importNdjson(HttpServletRequest request) throws IOException {
+		try (BufferedReader reader = request.getReader()) {
+			return ResponseEntity.ok(userImportService.importNdjson(reader));
+		}
+	}
+
+	@PostMapping(value = "/import", consumes = "text/csv")
+	public ResponseEntity<UserImportResponse> importCsv(HttpServletRequest request) throws IOException {
+		try (BufferedReader reader = request.getReader()) {
+			return ResponseEntity.ok(userImportService.importCsv(reader));
+		}
+	}
+}
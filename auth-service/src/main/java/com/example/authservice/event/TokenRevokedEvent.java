@@ -0,0 +1,34 @@
+package com.example.authservice.event;
+
+/**
+ * An access token that must no longer be accepted, identified by its
+ * {@code jti}. The gateway forgets it once {@code expiresAt} (epoch seconds)
+ * has passed, since the token is rejected as expired from then on.
+ */
+public class TokenRevokedEvent {
+
+	private String tokenId;
+	private String subject;
+	private long expiresAt;
+
+	public TokenRevokedEvent() {
+	}
+
+	public TokenRevokedEvent(String tokenId, String subject, long expiresAt) {
+		this.tokenId = tokenId;
+		this.subject = subject;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getTokenId() {
+		return tokenId;
+	}
+
+	public String getSubject() {
+		return subject;
+	}
+
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.authservice.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One opaque refresh token. Only its SHA-256 is stored. Every token issued by
+ * rotating another shares the original's {@code familyId}, so a replayed
+ * (already used) token can revoke the whole chain.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = { @Index(name = "idx_refresh_tokens_hash", columnList = "tokenHash", unique = true),
+		@Index(name = "idx_refresh_tokens_family", columnList = "familyId"),
+		@Index(name = "idx_refresh_tokens_expires", columnList = "expiresAt") })
+public class RefreshToken {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(nullable = false, length = 64)
+	private String tokenHash;
+
+	@Column(nullable = false, length = 36)
+	private String familyId;
+
+	@Column(nullable = false, length = 20)
+	private String username;
+
+	@Column(nullable = false)
+	private Instant expiresAt;
+
+	private boolean used;
+
+	private boolean revoked;
+
+	public RefreshToken() {
+	}
+
+	public RefreshToken(String tokenHash, String familyId, String username, Instant expiresAt) {
+		this.tokenHash = tokenHash;
+		this.familyId = familyId;
+		this.username = username;
+		this.expiresAt = expiresAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getTokenHash() {
+		return tokenHash;
+	}
+
+	public String getFamilyId() {
+		return familyId;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+
+	public boolean isUsed() {
+		return used;
+	}
+
+	public boolean isRevoked() {
+		return revoked;
+	}
+}
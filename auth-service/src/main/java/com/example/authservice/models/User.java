@@ -9,6 +9,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -20,7 +21,8 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "users", uniqueConstraints = { @UniqueConstraint(columnNames = "username"),
-		@UniqueConstraint(columnNames = "email") })
+		@UniqueConstraint(columnNames = "email") },
+		indexes = @Index(name = "idx_users_password_changed", columnList = "passwordLastChangedAt"))
 public class User {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,11 +36,6 @@ public class User {
 	@Size(max = 50)
 	@Email
 	private String email;
-    public boolean isPasswordExpired() {
-        return passwordLastChangedAt != null &&
-                passwordLastChangedAt.isBefore(LocalDateTime.now().minusMinutes(5));
-//        minusDays(90)
-    }
     public LocalDateTime getPasswordLastChangedAt() {
         return passwordLastChangedAt;
     }
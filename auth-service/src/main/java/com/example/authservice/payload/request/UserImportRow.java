@@ -0,0 +1,69 @@
+package com.example.authservice.payload.request;
+
+import java.util.Set;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One user of a bulk import, validated like {@link SignupRequest}.
+ */
+public class UserImportRow {
+	@NotBlank
+	@Size(min = 3, max = 20)
+	private String username;
+
+	@NotBlank
+	@Size(max = 50)
+	@Email
+	private String email;
+
+	private Set<String> roles;
+
+	@NotBlank
+	@Size(min = 6, max = 40)
+	private String password;
+
+	public UserImportRow() {
+	}
+
+	public UserImportRow(String username, String email, String password, Set<String> roles) {
+		this.username = username;
+		this.email = email;
+		this.password = password;
+		this.roles = roles;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public void setUsername(String username) {
+		this.username = username;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public void setEmail(String email) {
+		this.email = email;
+	}
+
+	public Set<String> getRoles() {
+		return roles;
+	}
+
+	public void setRoles(Set<String> roles) {
+		this.roles = roles;
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	public void setPassword(String password) {
+		this.password = password;
+	}
+}
@@ -0,0 +1,35 @@
+package com.example.authservice.payload.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserImportResponse {
+	private int imported;
+	private final List<RowError> errors = new ArrayList<>();
+
+	public int getImported() {
+		return imported;
+	}
+
+	public void addImported(int count) {
+		imported += count;
+	}
+
+	public int getFailed() {
+		return errors.size();
+	}
+
+	public List<RowError> getErrors() {
+		return errors;
+	}
+
+	public void addError(long line, String username, String message) {
+		errors.add(new RowError(line, username, message));
+	}
+
+	/**
+	 * @param line 1-based line of the row in the uploaded file
+	 */
+	public record RowError(long line, String username, String message) {
+	}
+}
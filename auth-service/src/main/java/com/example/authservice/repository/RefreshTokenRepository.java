@@ -0,0 +1,37 @@
+package com.example.authservice.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.authservice.models.RefreshToken;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+	Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+	/**
+	 * Claims a token for rotation. Only one caller can flip {@code used}, so
+	 * a concurrent replay sees 0 and is treated as reuse.
+	 */
+	@Modifying
+	@Query("update RefreshToken t set t.used = true where t.id = :id and t.used = false and t.revoked = false")
+	int markUsed(@Param("id") Long id);
+
+	@Modifying
+	@Query("update RefreshToken t set t.revoked = true where t.familyId = :familyId and t.revoked = false")
+	int revokeFamily(@Param("familyId") String familyId);
+
+	@Modifying
+	@Query("update RefreshToken t set t.revoked = true where t.username = :username and t.revoked = false")
+	int revokeAllForUser(@Param("username") String username);
+
+	@Modifying
+	@Query("delete from RefreshToken t where t.expiresAt < :cutoff")
+	int deleteExpired(@Param("cutoff") Instant cutoff);
+}
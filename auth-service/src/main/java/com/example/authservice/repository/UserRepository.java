@@ -1,9 +1,18 @@
 package com.example.authservice.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.authservice.models.User;
 
@@ -11,7 +20,72 @@ import com.example.authservice.models.User;
 public interface UserRepository extends JpaRepository<User, Long> {
 	Optional<User> findByUsername(String username);
 
-	Boolean existsByUsername(String username);
+	/**
+	 * Loads the user and its roles in one query instead of a second one when
+	 * {@code roles} is first touched.
+	 */
+	@EntityGraph(attributePaths = "roles")
+	Optional<User> findWithRolesByUsername(String username);
 
-	Boolean existsByEmail(String email);
+	/**
+	 * Replaces the hash only if it is still {@code oldHash}, so a background
+	 * rehash never overwrites a password changed in the meantime.
+	 */
+	@Transactional
+	@Modifying
+	@Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+	int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+	/**
+	 * Id and password age of a user whose password has expired, as read by
+	 * {@code PasswordExpirySweeper}.
+	 */
+	interface PasswordAge {
+		Long getId();
+
+		LocalDateTime getPasswordLastChangedAt();
+	}
+
+	@Query("select u.id as id, u.passwordLastChangedAt as passwordLastChangedAt from User u"
+			+ " where u.forcePasswordChange = false and u.passwordLastChangedAt < :cutoff"
+			+ " order by u.passwordLastChangedAt, u.id")
+	List<PasswordAge> findExpiredPasswords(@Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+	/**
+	 * Next page after the keyset ({@code changedAt}, {@code id}) of the last
+	 * row of the previous page.
+	 */
+	@Query("select u.id as id, u.passwordLastChangedAt as passwordLastChangedAt from User u"
+			+ " where u.forcePasswordChange = false and u.passwordLastChangedAt < :cutoff"
+			+ " and (u.passwordLastChangedAt > :changedAt or (u.passwordLastChangedAt = :changedAt and u.id > :id))"
+			+ " order by u.passwordLastChangedAt, u.id")
+	List<PasswordAge> findExpiredPasswordsAfter(@Param("cutoff") LocalDateTime cutoff,
+			@Param("changedAt") LocalDateTime changedAt, @Param("id") Long id, Pageable page);
+
+	/**
+	 * Re-checks the cutoff so a password changed since the page was read is
+	 * not flagged.
+	 */
+	@Transactional
+	@Modifying
+	@Query("update User u set u.forcePasswordChange = true where u.id in :ids"
+			+ " and u.forcePasswordChange = false and u.passwordLastChangedAt < :cutoff")
+	int markPasswordsExpired(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+	interface UsernameAndEmail {
+		String getUsername();
+
+		String getEmail();
+	}
+
+	/**
+	 * Signup's uniqueness check in one round trip: both columns carry a
+	 * unique index, so this returns at most two rows.
+	 */
+	List<UsernameAndEmail> findByUsernameOrEmail(String username, String email);
+
+	/**
+	 * The same check for a whole chunk of a bulk import.
+	 */
+	List<UsernameAndEmail> findByUsernameInOrEmailIn(Collection<String> usernames, Collection<String> emails);
 }
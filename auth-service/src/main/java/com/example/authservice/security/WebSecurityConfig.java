@@ -1,5 +1,6 @@
 package com.example.authservice.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,12 +9,12 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import com.example.authservice.security.jwt.AuthJwtFilter;
+import com.example.authservice.security.services.CalibratedPasswordEncoders;
 
 @Configuration
 @EnableMethodSecurity
@@ -26,8 +27,11 @@ public class WebSecurityConfig {
 
 	
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder passwordEncoder(@Value("${bezkoder.app.password.algorithm:bcrypt}") String algorithm,
+			@Value("${bezkoder.app.password.targetMs:250}") long targetMs,
+			@Value("${bezkoder.app.password.minBcryptStrength:10}") int minBcryptStrength,
+			@Value("${bezkoder.app.password.argon2MemoryKiB:19456}") int argon2MemoryKiB) {
+		return CalibratedPasswordEncoders.create(algorithm, targetMs, minBcryptStrength, argon2MemoryKiB);
 	}
 
 
@@ -41,7 +45,7 @@ public class WebSecurityConfig {
 		http.csrf(csrf -> csrf.disable())
 				.sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 				.authorizeHttpRequests(auth -> auth
-						.requestMatchers("/api/auth/signin", "/api/auth/signup", "/api/auth/signout","/api/auth/change-password").permitAll()
+						.requestMatchers("/api/auth/signin", "/api/auth/signup", "/api/auth/signout","/api/auth/change-password", "/api/auth/jwks", "/api/auth/refresh").permitAll()
 						.requestMatchers("/api/auth/me").authenticated().anyRequest().authenticated())
 				.addFilterBefore(authJwtFilter, UsernamePasswordAuthenticationFilter.class)
 				.httpBasic(AbstractHttpConfigurer::disable);
@@ -1,14 +1,23 @@
 package com.example.authservice.security.jwt;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.authservice.security.services.UserDetailsCache;
+import com.example.authservice.security.services.UserDetailsImpl;
+import com.example.identity.IdentityHeaderFilter;
+import com.example.identity.InternalIdentity;
+import com.example.identity.TokenClaims;
+
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.io.IOException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -24,6 +33,14 @@ public class AuthJwtFilter extends OncePerRequestFilter {
 	@Autowired
 	private UserDetailsService userDetailsService;
 
+	@Autowired
+	private UserDetailsCache userDetailsCache;
+
+	// "claims": build the principal from the verified token; "database": load
+	// the user on every request (through the user cache)
+	@Value("${bezkoder.app.principalSource:claims}")
+	private String principalSource;
+
 
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -33,20 +50,15 @@ public class AuthJwtFilter extends OncePerRequestFilter {
 
         if (path.equals("/api/auth/signin")
                 || path.equals("/api/auth/signup")
-                || path.equals("/api/auth/signout")) {
+                || path.equals("/api/auth/signout")
+                || path.equals("/api/auth/refresh")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-		String jwt = jwtUtils.getJwtFromCookies(request);
-
-		if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
+		UserDetailsImpl userDetails = resolvePrincipal(request);
 
-			String username = jwtUtils.getUserNameFromJwtToken(jwt);
-            System.out.println("Auth Header: " + request.getHeader("Authorization"));
-            System.out.println("Cookie token: " + request.getCookies());
-			UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-			
+		if (userDetails != null) {
 			UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails,
 					null, userDetails.getAuthorities());
 		
@@ -57,4 +69,40 @@ public class AuthJwtFilter extends OncePerRequestFilter {
 
 		filterChain.doFilter(request, response);
 	}
+
+	/**
+	 * The gateway has already verified the token and says so in the signed
+	 * identity header; only parse the JWT ourselves when called directly.
+	 */
+	private UserDetailsImpl resolvePrincipal(HttpServletRequest request) {
+		InternalIdentity identity = IdentityHeaderFilter.identityOf(request);
+		if (identity != null) {
+			return principal(identity.getSubject(), identity.getUserId(), identity.getEmail(), identity.getRoles());
+		}
+
+		String jwt = jwtUtils.getJwtFromCookies(request);
+		if (jwt == null) {
+			return null;
+		}
+		Claims claims;
+		try {
+			claims = jwtUtils.getAllClaimsFromToken(jwt);
+		} catch (Exception e) {
+			return null;
+		}
+		Number userId = claims.get(TokenClaims.USER_ID, Number.class);
+		return principal(claims.getSubject(), userId == null ? null : userId.longValue(),
+				claims.get(TokenClaims.EMAIL, String.class), TokenClaims.rolesOf(claims));
+	}
+
+	private UserDetailsImpl principal(String username, Long userId, String email, List<String> roles) {
+		if (userId != null && !"database".equalsIgnoreCase(principalSource)) {
+			return UserDetailsImpl.fromClaims(userId, username, email, roles);
+		}
+		try {
+			return userDetailsCache.get(username, name -> (UserDetailsImpl) userDetailsService.loadUserByUsername(name));
+		} catch (UsernameNotFoundException e) {
+			return null;
+		}
+	}
 }
@@ -0,0 +1,141 @@
+package com.example.authservice.security.jwt;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory ES256 signing keys, rotated on a schedule.
+ *
+ * The JWKS always lists the key after the current one, so verifiers that
+ * refresh more often than {@code bezkoder.app.jwtKeyRotationMs} already know
+ * it when signing switches over. A retired key stays published until the
+ * last token it signed has expired.
+ */
+@Component
+public class JwtSigningKeys {
+
+	public record SigningKey(String kid, KeyPair keyPair) {
+
+		public PrivateKey privateKey() {
+			return keyPair.getPrivate();
+		}
+
+		public PublicKey publicKey() {
+			return keyPair.getPublic();
+		}
+	}
+
+	private record Retired(SigningKey key, Instant until) {
+	}
+
+	private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+
+	private final long retainMs;
+
+	private volatile SigningKey current;
+	private volatile SigningKey next;
+	private volatile List<Retired> retired = List.of();
+	private volatile Map<String, PublicKey> publicKeys = Map.of();
+	private volatile Map<String, Object> jwks = Map.of();
+
+	public JwtSigningKeys(@Value("${bezkoder.app.jwtExpirationMs}") long jwtExpirationMs) {
+		// tokens signed just before a rotation, plus a minute of clock skew
+		this.retainMs = jwtExpirationMs + 60_000;
+		this.current = generate();
+		this.next = generate();
+		publish();
+	}
+
+	public SigningKey current() {
+		return current;
+	}
+
+	/**
+	 * @return the public key for {@code kid}, or null if it is unknown or retired
+	 */
+	public PublicKey publicKey(String kid) {
+		return kid == null ? null : publicKeys.get(kid);
+	}
+
+	/**
+	 * @return the published keys as a JWK Set document
+	 */
+	public Map<String, Object> jwks() {
+		return jwks;
+	}
+
+	@Scheduled(initialDelayString = "${bezkoder.app.jwtKeyRotationMs:86400000}",
+			fixedDelayString = "${bezkoder.app.jwtKeyRotationMs:86400000}")
+	public synchronized void rotate() {
+		Instant now = Instant.now();
+		List<Retired> stillValid = new ArrayList<>(retired.stream()
+				.filter(r -> r.until().isAfter(now))
+				.toList());
+		stillValid.add(new Retired(current, now.plusMillis(retainMs)));
+
+		retired = List.copyOf(stillValid);
+		current = next;
+		next = generate();
+		publish();
+	}
+
+	private void publish() {
+		Map<String, PublicKey> keys = new LinkedHashMap<>();
+		keys.put(current.kid(), current.publicKey());
+		keys.put(next.kid(), next.publicKey());
+		retired.forEach(r -> keys.put(r.key().kid(), r.key().publicKey()));
+
+		publicKeys = Map.copyOf(keys);
+		jwks = Map.of("keys", keys.entrySet().stream()
+				.map(e -> toJwk(e.getKey(), (ECPublicKey) e.getValue()))
+				.toList());
+	}
+
+	private static Map<String, Object> toJwk(String kid, ECPublicKey key) {
+		Map<String, Object> jwk = new LinkedHashMap<>();
+		jwk.put("kty", "EC");
+		jwk.put("crv", "P-256");
+		jwk.put("use", "sig");
+		jwk.put("alg", "ES256");
+		jwk.put("kid", kid);
+		jwk.put("x", coordinate(key.getW().getAffineX()));
+		jwk.put("y", coordinate(key.getW().getAffineY()));
+		return jwk;
+	}
+
+	// JWK coordinates are fixed-length unsigned big-endian: 32 bytes for P-256
+	private static String coordinate(BigInteger value) {
+		byte[] bytes = value.toByteArray();
+		byte[] fixed = new byte[32];
+		int length = Math.min(bytes.length, 32);
+		System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+		return B64.encodeToString(fixed);
+	}
+
+	private static SigningKey generate() {
+		try {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+			generator.initialize(new ECGenParameterSpec("secp256r1"));
+			return new SigningKey(UUID.randomUUID().toString(), generator.generateKeyPair());
+		} catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("Cannot generate ES256 signing key", ex);
+		}
+	}
+}
@@ -1,9 +1,10 @@
 package com.example.authservice.security.jwt;
 
-import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
@@ -11,55 +12,104 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.util.WebUtils;
 
 import com.example.authservice.security.services.UserDetailsImpl;
+import com.example.identity.TokenClaims;
+import com.example.identity.TokenCookies;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 
 @Component
 public class JwtUtils {
 
-	@Value("${bezkoder.app.jwtSecret}")
-	private String jwtSecret;
-
 	@Value("${bezkoder.app.jwtExpirationMs}")
 	private int jwtExpirationMs;
 
 	@Value("${bezkoder.app.jwtCookieName:sabiCookie}")
 	private String jwtCookieName;
 
-	private Key key() {
-		try {
-			byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-			return Keys.hmacShaKeyFor(keyBytes);
-		} catch (IllegalArgumentException ex) {
-			
-			return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-		}
+	@Value("${bezkoder.app.jwtRefreshCookieName:sabiRefresh}")
+	private String jwtRefreshCookieName;
+
+	// only /refresh and /signout read the refresh token; set to the path
+	// clients use, which behind the gateway carries its prefix
+	@Value("${bezkoder.app.jwtRefreshCookiePath:/api/auth}")
+	private String jwtRefreshCookiePath;
+
+	private final JwtSigningKeys signingKeys;
+	private final JwtParser parser;
+
+	// Tokens are signed with the current ES256 key and name it in the "kid"
+	// header; verifiers look the public key up in the JWKS instead of sharing
+	// a secret.
+	public JwtUtils(JwtSigningKeys signingKeys) {
+		this.signingKeys = signingKeys;
+		this.parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+			@Override
+			public Key resolveSigningKey(JwsHeader header, Claims claims) {
+				Key key = signingKeys.publicKey(header.getKeyId());
+				if (key == null) {
+					throw new UnsupportedJwtException("Unknown signing key: " + header.getKeyId());
+				}
+				return key;
+			}
+		}).build();
+	}
+
+	private JwtBuilder signed(JwtBuilder builder) {
+		JwtSigningKeys.SigningKey key = signingKeys.current();
+		return builder.setHeaderParam(JwsHeader.KEY_ID, key.kid()).signWith(key.privateKey(), SignatureAlgorithm.ES256);
 	}
 
 	public String generateTokenFromUsername(String username) {
-		return Jwts.builder().setSubject(username).setIssuedAt(new Date())
-				.setExpiration(new Date((new Date()).getTime() + jwtExpirationMs)).signWith(key()).compact();
+		return signed(Jwts.builder().setId(UUID.randomUUID().toString()).setSubject(username).setIssuedAt(new Date())
+				.setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))).compact();
 	}
 
 	public String generateTokenWithRoles(String username, List<String> roles,boolean forcePwdChange) {
-		return Jwts.builder().setSubject(username).claim("forcePwdChange", forcePwdChange).claim("roles", roles).setIssuedAt(new Date())
-				.setExpiration(new Date((new Date()).getTime() + jwtExpirationMs)).signWith(key()).compact();
+		return signed(Jwts.builder().setId(UUID.randomUUID().toString()).setSubject(username).claim(TokenClaims.FORCE_PASSWORD_CHANGE, forcePwdChange).claim(TokenClaims.ROLES, roles).setIssuedAt(new Date())
+				.setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))).compact();
 	}
 
-	public ResponseCookie generateJwtCookie(UserDetailsImpl userPrincipal,boolean forcePwdChange) {
+	/**
+	 * Carries everything {@link UserDetailsImpl} needs, so authenticated
+	 * requests can build the principal without loading the user.
+	 */
+	public String generateTokenForUser(UserDetailsImpl userPrincipal, boolean forcePwdChange) {
 		List<String> roles = userPrincipal.getAuthorities().stream().map(a -> a.getAuthority()).toList();
-		String jwt = generateTokenWithRoles(userPrincipal.getUsername(), roles, forcePwdChange);
-		long maxAgeSec = jwtExpirationMs / 1000L;
-		return ResponseCookie.from(jwtCookieName, jwt).path("/").maxAge(maxAgeSec).httpOnly(true).build();
+		return signed(Jwts.builder().setId(UUID.randomUUID().toString()).setSubject(userPrincipal.getUsername())
+				.claim(TokenClaims.USER_ID, userPrincipal.getId()).claim(TokenClaims.EMAIL, userPrincipal.getEmail())
+				.claim(TokenClaims.FORCE_PASSWORD_CHANGE, forcePwdChange).claim(TokenClaims.ROLES, roles).setIssuedAt(new Date())
+				.setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))).compact();
+	}
+
+	public ResponseCookie generateJwtCookie(UserDetailsImpl userPrincipal,boolean forcePwdChange) {
+		String jwt = generateTokenForUser(userPrincipal, forcePwdChange);
+		return TokenCookies.of(jwtCookieName, jwt, Duration.ofSeconds(jwtExpirationMs / 1000L));
 	}
 
 	public ResponseCookie getCleanJwtCookie() {
-		return ResponseCookie.from(jwtCookieName, "").path("/").maxAge(0).httpOnly(true).build();
+		return TokenCookies.cleared(jwtCookieName);
+	}
+
+	public ResponseCookie generateRefreshCookie(String refreshToken, Duration lifetime) {
+		return TokenCookies.of(jwtRefreshCookieName, refreshToken, lifetime, jwtRefreshCookiePath);
+	}
+
+	public ResponseCookie getCleanRefreshCookie() {
+		return TokenCookies.cleared(jwtRefreshCookieName, jwtRefreshCookiePath);
+	}
+
+	public String getRefreshTokenFromCookies(HttpServletRequest request) {
+		Cookie cookie = WebUtils.getCookie(request, jwtRefreshCookieName);
+		return cookie == null || cookie.getValue().isEmpty() ? null : cookie.getValue();
 	}
 
 	public String getJwtFromCookies(HttpServletRequest request) {
@@ -73,16 +123,16 @@ public class JwtUtils {
 	}
 
 	public String getUserNameFromJwtToken(String token) {
-		return Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token).getBody().getSubject();
+		return parser.parseClaimsJws(token).getBody().getSubject();
 	}
 
 	public Claims getAllClaimsFromToken(String token) {
-		return Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token).getBody();
+		return parser.parseClaimsJws(token).getBody();
 	}
 
 	public boolean validateJwtToken(String authToken) {
 		try {
-			Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
+			parser.parseClaimsJws(authToken);
 			return true;
 		} catch (Exception e) {
 			return false;
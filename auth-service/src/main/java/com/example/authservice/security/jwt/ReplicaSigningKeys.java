@@ -0,0 +1,151 @@
+package com.example.authservice.security.jwt;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Public keys of every auth-service replica, by {@code kid}: this
+ * instance's own from {@link JwtSigningKeys}, the others' from their JWKS,
+ * fetched through discovery as the gateway does.
+ *
+ * A fetched key is kept until it has been missing from every answer for
+ * longer than a token lifetime, so a replica that is briefly unreachable
+ * does not take its keys with it. An unknown {@code kid} triggers an early
+ * refresh, at most once per {@code bezkoder.app.jwks.minRefreshIntervalMs}.
+ */
+@Component
+public class ReplicaSigningKeys {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReplicaSigningKeys.class);
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private record Fetched(PublicKey key, long seenAtNanos) {
+	}
+
+	private final JwtSigningKeys ownKeys;
+	private final DiscoveryClient discoveryClient;
+	private final RestTemplate restTemplate;
+	private final String serviceId;
+	private final String path;
+	private final long retainNanos;
+	private final long minRefreshIntervalNanos;
+
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+	private volatile long lastRefreshNanos;
+	private final Map<String, Fetched> keys = new ConcurrentHashMap<>();
+
+	public ReplicaSigningKeys(JwtSigningKeys ownKeys, DiscoveryClient discoveryClient,
+			RestTemplateBuilder restTemplateBuilder,
+			@Value("${spring.application.name}") String serviceId,
+			@Value("${bezkoder.app.jwks.path:/api/auth/jwks}") String path,
+			@Value("${bezkoder.app.jwtExpirationMs}") long jwtExpirationMs,
+			@Value("${bezkoder.app.jwks.minRefreshIntervalMs:5000}") long minRefreshIntervalMs) {
+		this.ownKeys = ownKeys;
+		this.discoveryClient = discoveryClient;
+		this.restTemplate = restTemplateBuilder.setConnectTimeout(Duration.ofSeconds(2))
+				.setReadTimeout(Duration.ofSeconds(5)).build();
+		this.serviceId = serviceId;
+		this.path = path;
+		// tokens signed just before a key went missing, plus a minute of clock skew
+		this.retainNanos = Duration.ofMillis(jwtExpirationMs + 60_000).toNanos();
+		this.minRefreshIntervalNanos = Duration.ofMillis(minRefreshIntervalMs).toNanos();
+		this.lastRefreshNanos = System.nanoTime() - minRefreshIntervalNanos;
+	}
+
+	/**
+	 * @return the key for {@code kid}, or null if no replica publishes it
+	 */
+	public PublicKey publicKey(String kid) {
+		if (kid == null) {
+			return null;
+		}
+		PublicKey own = ownKeys.publicKey(kid);
+		if (own != null) {
+			return own;
+		}
+		Fetched fetched = keys.get(kid);
+		if (fetched == null && System.nanoTime() - lastRefreshNanos >= minRefreshIntervalNanos) {
+			refresh();
+			fetched = keys.get(kid);
+		}
+		return fetched == null ? null : fetched.key();
+	}
+
+	@Scheduled(fixedDelayString = "${bezkoder.app.jwks.refreshMs:60000}")
+	public void refresh() {
+		if (!refreshing.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			lastRefreshNanos = System.nanoTime();
+			for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+				try {
+					String json = restTemplate.getForObject(instance.getUri().resolve(path), String.class);
+					long now = System.nanoTime();
+					parse(json).forEach((kid, key) -> keys.put(kid, new Fetched(key, now)));
+				} catch (Exception ex) {
+					logger.warn("Cannot fetch JWKS from {}: {}", instance.getUri(), ex.getMessage());
+				}
+			}
+			long now = System.nanoTime();
+			keys.values().removeIf(fetched -> now - fetched.seenAtNanos() > retainNanos);
+		} finally {
+			refreshing.set(false);
+		}
+	}
+
+	/**
+	 * @return the P-256 keys of a JWK Set document, by {@code kid}
+	 */
+	static Map<String, PublicKey> parse(String json) {
+		Map<String, PublicKey> parsed = new HashMap<>();
+		try {
+			KeyFactory keyFactory = KeyFactory.getInstance("EC");
+			AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+			parameters.init(new ECGenParameterSpec("secp256r1"));
+			ECParameterSpec p256 = parameters.getParameterSpec(ECParameterSpec.class);
+			for (JsonNode jwk : objectMapper.readTree(json).path("keys")) {
+				if ("EC".equals(jwk.path("kty").asText()) && "P-256".equals(jwk.path("crv").asText())
+						&& jwk.hasNonNull("kid")) {
+					ECPoint point = new ECPoint(coordinate(jwk.path("x").asText()), coordinate(jwk.path("y").asText()));
+					parsed.put(jwk.get("kid").asText(), keyFactory.generatePublic(new ECPublicKeySpec(point, p256)));
+				}
+			}
+		} catch (GeneralSecurityException | IllegalArgumentException | IOException ex) {
+			throw new IllegalArgumentException("Malformed JWKS", ex);
+		}
+		return parsed;
+	}
+
+	private static BigInteger coordinate(String value) {
+		return new BigInteger(1, Base64.getUrlDecoder().decode(value));
+	}
+}
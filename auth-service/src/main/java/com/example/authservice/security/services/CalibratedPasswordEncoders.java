@@ -0,0 +1,103 @@
+package com.example.authservice.security.services;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Builds the password encoder with a work factor measured on this host, so a
+ * hash takes about {@code targetMs} whatever the hardware.
+ *
+ * New hashes are written as {@code {bcrypt}...} or {@code {argon2}...};
+ * existing unprefixed BCrypt hashes keep verifying. A hash made with another
+ * algorithm or weaker parameters reports {@code upgradeEncoding} and is
+ * rehashed after the next successful signin.
+ */
+public final class CalibratedPasswordEncoders {
+
+	private static final Logger logger = LoggerFactory.getLogger(CalibratedPasswordEncoders.class);
+
+	static final int MAX_BCRYPT_STRENGTH = 31;
+	private static final int MAX_ARGON2_ITERATIONS = 10;
+	private static final String SAMPLE = "calibration-password";
+
+	private CalibratedPasswordEncoders() {
+	}
+
+	/**
+	 * @param algorithm        {@code bcrypt} or {@code argon2}, used for new hashes
+	 * @param targetMs         hashing time to aim for
+	 * @param minBcryptStrength lower bound whatever the measurement says
+	 * @param argon2MemoryKiB  memory cost for Argon2
+	 */
+	public static PasswordEncoder create(String algorithm, long targetMs, int minBcryptStrength,
+			int argon2MemoryKiB) {
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(calibrateBcrypt(targetMs, minBcryptStrength));
+
+		PasswordEncoder argon2;
+		String encodingId;
+		if ("argon2".equalsIgnoreCase(algorithm)) {
+			argon2 = new Argon2PasswordEncoder(16, 32, 1, argon2MemoryKiB, calibrateArgon2(targetMs, argon2MemoryKiB));
+			encodingId = "argon2";
+		} else {
+			// still able to verify argon2 hashes if the setting is switched back
+			argon2 = Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+			encodingId = "bcrypt";
+		}
+
+		DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(encodingId,
+				Map.of("bcrypt", bcrypt, "argon2", argon2));
+		// hashes stored before the {id} prefix are plain BCrypt
+		encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+		return encoder;
+	}
+
+	/**
+	 * @return the highest strength whose hash time stays within
+	 *         {@code targetMs}, but at least {@code minStrength}
+	 */
+	static int calibrateBcrypt(long targetMs, int minStrength) {
+		int strength = 4;
+		long millis = time(new BCryptPasswordEncoder(strength));
+		// each step doubles the work, so stop before overshooting
+		while (strength < MAX_BCRYPT_STRENGTH && millis * 2 <= targetMs) {
+			strength++;
+			millis = time(new BCryptPasswordEncoder(strength));
+		}
+		int chosen = Math.max(strength, minStrength);
+		logger.info("BCrypt strength {} ({} ms per hash, target {} ms)", chosen, millis, targetMs);
+		return chosen;
+	}
+
+	static int calibrateArgon2(long targetMs, int memoryKiB) {
+		int iterations = 1;
+		long millis = time(new Argon2PasswordEncoder(16, 32, 1, memoryKiB, iterations));
+		long perIteration = Math.max(1, millis);
+		if (millis < targetMs) {
+			iterations = (int) Math.min(MAX_ARGON2_ITERATIONS, Math.max(1, targetMs / perIteration));
+		}
+		// OWASP's floor for Argon2id at this memory size
+		iterations = Math.max(2, iterations);
+		logger.info("Argon2id m={} KiB, t={} (~{} ms per pass, target {} ms)", memoryKiB, iterations, perIteration,
+				targetMs);
+		return iterations;
+	}
+
+	// median of three, which also absorbs the JIT warm-up of the first run
+	private static long time(PasswordEncoder encoder) {
+		long[] samples = new long[3];
+		for (int i = 0; i < samples.length; i++) {
+			long start = System.nanoTime();
+			encoder.encode(SAMPLE);
+			samples[i] = (System.nanoTime() - start) / 1_000_000;
+		}
+		Arrays.sort(samples);
+		return samples[1];
+	}
+}
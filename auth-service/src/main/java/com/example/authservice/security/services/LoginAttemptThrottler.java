@@ -0,0 +1,197 @@
+package com.example.authservice.security.services;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Counts failed signins per username and per client IP and locks a key out
+ * once it goes over its limit, before any BCrypt work is spent on it.
+ *
+ * Each key keeps a sliding-window counter (the previous fixed window,
+ * weighted by how much of it still overlaps, plus the current one). Every
+ * lockout doubles the next one, up to {@code lockoutMaxSeconds}, until the
+ * key has been quiet for a full window. Keys are held in a bounded cache and
+ * each counter is guarded by its own monitor, so unrelated callers never
+ * contend.
+ *
+ * Meters: {@code auth.login.throttled} and {@code auth.login.lockouts}
+ * (tagged {@code key=user|ip}) and {@code auth.login.tracked-keys}.
+ */
+@Component
+public class LoginAttemptThrottler {
+
+	private final long windowNanos;
+	private final int maxFailuresPerUser;
+	private final int maxFailuresPerIp;
+	private final long lockoutBaseNanos;
+	private final long lockoutMaxNanos;
+	private final int trustedProxyHops;
+	private final Cache<String, FailureCounter> counters;
+	private final MeterRegistry meterRegistry;
+	private final LongSupplier nanoClock;
+
+	@Autowired
+	public LoginAttemptThrottler(@Value("${bezkoder.app.login.windowSeconds:300}") long windowSeconds,
+			@Value("${bezkoder.app.login.maxFailuresPerUser:5}") int maxFailuresPerUser,
+			@Value("${bezkoder.app.login.maxFailuresPerIp:50}") int maxFailuresPerIp,
+			@Value("${bezkoder.app.login.lockoutBaseSeconds:30}") long lockoutBaseSeconds,
+			@Value("${bezkoder.app.login.lockoutMaxSeconds:900}") long lockoutMaxSeconds,
+			@Value("${bezkoder.app.login.maxTrackedKeys:100000}") long maxTrackedKeys,
+			@Value("${bezkoder.app.login.trustedProxyHops:1}") int trustedProxyHops,
+			MeterRegistry meterRegistry) {
+		this(windowSeconds, maxFailuresPerUser, maxFailuresPerIp, lockoutBaseSeconds, lockoutMaxSeconds,
+				maxTrackedKeys, trustedProxyHops, meterRegistry, System::nanoTime);
+	}
+
+	LoginAttemptThrottler(long windowSeconds, int maxFailuresPerUser, int maxFailuresPerIp,
+			long lockoutBaseSeconds, long lockoutMaxSeconds, long maxTrackedKeys, int trustedProxyHops,
+			MeterRegistry meterRegistry, LongSupplier nanoClock) {
+		this.windowNanos = Duration.ofSeconds(windowSeconds).toNanos();
+		this.maxFailuresPerUser = maxFailuresPerUser;
+		this.maxFailuresPerIp = maxFailuresPerIp;
+		this.lockoutBaseNanos = Duration.ofSeconds(lockoutBaseSeconds).toNanos();
+		this.lockoutMaxNanos = Duration.ofSeconds(lockoutMaxSeconds).toNanos();
+		this.trustedProxyHops = Math.max(0, trustedProxyHops);
+		this.counters = Caffeine.newBuilder()
+				.maximumSize(maxTrackedKeys)
+				.expireAfterAccess(Duration.ofNanos(2 * windowNanos + lockoutMaxNanos))
+				.build();
+		this.meterRegistry = meterRegistry;
+		this.nanoClock = nanoClock;
+		Gauge.builder("auth.login.tracked-keys", counters, Cache::estimatedSize).register(meterRegistry);
+	}
+
+	/**
+	 * The caller's address. Every proxy appends the address it received the
+	 * request from to {@code X-Forwarded-For}, so only the last
+	 * {@code trustedProxyHops} entries were written by our own proxies; the
+	 * entry those hops saw is the client. Anything to its left came from the
+	 * client and is ignored. With no header (called directly) or
+	 * {@code trustedProxyHops=0}, the socket address.
+	 */
+	public String clientIp(HttpServletRequest request) {
+		String forwarded = request.getHeader("X-Forwarded-For");
+		if (trustedProxyHops == 0 || !StringUtils.hasText(forwarded)) {
+			return request.getRemoteAddr();
+		}
+		String[] hops = StringUtils.commaDelimitedListToStringArray(forwarded);
+		return hops[Math.max(0, hops.length - trustedProxyHops)].trim();
+	}
+
+	/**
+	 * @return 0 if the attempt may go ahead, otherwise the seconds until the
+	 *         username or IP is unlocked
+	 */
+	public long retryAfterSeconds(String username, String clientIp) {
+		long now = nanoClock.getAsLong();
+		long userWait = lockedFor(userKey(username), now);
+		long wait = Math.max(userWait, lockedFor(ipKey(clientIp), now));
+		if (wait > 0) {
+			meterRegistry.counter("auth.login.throttled", "key", userWait > 0 ? "user" : "ip").increment();
+		}
+		return wait == 0 ? 0 : Math.max(1, Duration.ofNanos(wait).toSeconds());
+	}
+
+	public void recordFailure(String username, String clientIp) {
+		long now = nanoClock.getAsLong();
+		fail(userKey(username), maxFailuresPerUser, "user", now);
+		fail(ipKey(clientIp), maxFailuresPerIp, "ip", now);
+	}
+
+	/**
+	 * Clears the username's history; the IP keeps its count, since one
+	 * valid account does not make the rest of its traffic legitimate.
+	 */
+	public void recordSuccess(String username) {
+		counters.invalidate(userKey(username));
+	}
+
+	private long lockedFor(String key, long now) {
+		FailureCounter counter = key == null ? null : counters.getIfPresent(key);
+		return counter == null ? 0 : counter.lockedFor(now);
+	}
+
+	private void fail(String key, int limit, String kind, long now) {
+		if (key == null) {
+			return;
+		}
+		if (counters.get(key, k -> new FailureCounter(now)).fail(now, limit)) {
+			meterRegistry.counter("auth.login.lockouts", "key", kind).increment();
+		}
+	}
+
+	private static String userKey(String username) {
+		return username == null ? null : "user:" + username.toLowerCase(Locale.ROOT);
+	}
+
+	private static String ipKey(String clientIp) {
+		return clientIp == null ? null : "ip:" + clientIp;
+	}
+
+	private final class FailureCounter {
+
+		private long windowStart;
+		private int current;
+		private int previous;
+		private int lockouts;
+		private long lockedUntil;
+
+		FailureCounter(long now) {
+			this.windowStart = now;
+			this.lockedUntil = now;
+		}
+
+		synchronized long lockedFor(long now) {
+			return Math.max(0, lockedUntil - now);
+		}
+
+		/**
+		 * @return true if this failure started a lockout
+		 */
+		synchronized boolean fail(long now, int limit) {
+			roll(now);
+			current++;
+			double overlap = 1.0 - (double) (now - windowStart) / windowNanos;
+			if (previous * overlap + current < limit) {
+				return false;
+			}
+
+			long lockout = lockoutBaseNanos << Math.min(lockouts, 20);
+			lockedUntil = now + Math.min(lockoutMaxNanos, lockout);
+			lockouts++;
+			previous = 0;
+			current = 0;
+			windowStart = now;
+			return true;
+		}
+
+		private void roll(long now) {
+			long elapsed = now - windowStart;
+			if (elapsed >= 2 * windowNanos) {
+				previous = 0;
+				current = 0;
+				windowStart = now;
+				if (now - lockedUntil >= windowNanos) {
+					lockouts = 0;
+				}
+			} else if (elapsed >= windowNanos) {
+				previous = current;
+				current = 0;
+				windowStart += windowNanos;
+			}
+		}
+	}
+}
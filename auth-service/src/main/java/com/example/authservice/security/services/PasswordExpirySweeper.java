@@ -0,0 +1,68 @@
+package com.example.authservice.security.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.authservice.repository.UserRepository;
+import com.example.authservice.repository.UserRepository.PasswordAge;
+
+/**
+ * Flags users whose password is older than {@code bezkoder.app.password.maxAgeMinutes}
+ * so that signin only has to read {@code forcePasswordChange}. Expired users
+ * are walked in pages ordered by {@code passwordLastChangedAt}, each page
+ * flagged with one bulk UPDATE in its own transaction.
+ *
+ * A password can be past its age for up to one sweep interval before it is
+ * flagged.
+ */
+@Component
+public class PasswordExpirySweeper {
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordExpirySweeper.class);
+
+	private final UserRepository userRepository;
+	private final Duration maxAge;
+	private final int batchSize;
+
+	public PasswordExpirySweeper(UserRepository userRepository,
+			@Value("${bezkoder.app.password.maxAgeMinutes:129600}") long maxAgeMinutes,
+			@Value("${bezkoder.app.password.expirySweepBatchSize:500}") int batchSize) {
+		this.userRepository = userRepository;
+		this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @return the number of users newly flagged
+	 */
+	@Scheduled(fixedDelayString = "${bezkoder.app.password.expirySweepMs:60000}")
+	public int sweep() {
+		LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+		PageRequest page = PageRequest.ofSize(batchSize);
+
+		int marked = 0;
+		List<PasswordAge> batch = userRepository.findExpiredPasswords(cutoff, page);
+		while (!batch.isEmpty()) {
+			marked += userRepository.markPasswordsExpired(batch.stream().map(PasswordAge::getId).toList(), cutoff);
+			if (batch.size() < batchSize) {
+				break;
+			}
+			PasswordAge last = batch.get(batch.size() - 1);
+			batch = userRepository.findExpiredPasswordsAfter(cutoff, last.getPasswordLastChangedAt(), last.getId(),
+					page);
+		}
+
+		if (marked > 0) {
+			logger.info("Flagged {} users with expired passwords", marked);
+		}
+		return marked;
+	}
+}
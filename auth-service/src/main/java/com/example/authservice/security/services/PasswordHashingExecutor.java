@@ -0,0 +1,96 @@
+package com.example.authservice.security.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs BCrypt work off the Tomcat request threads, on a pool sized to the
+ * cores. The queue is bounded: when it is full {@link #submit} throws
+ * {@link RejectedExecutionException} at once (mapped to 503) instead of
+ * letting a login storm pile up and starve cheap endpoints.
+ *
+ * Meters: {@code auth.hashing.queue.depth}, {@code auth.hashing.active},
+ * {@code auth.hashing.wait} (time queued), {@code auth.hashing.latency}
+ * (time hashing) and {@code auth.hashing.rejected}.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+	private final ThreadPoolExecutor executor;
+	private final Timer waitTimer;
+	private final Timer latencyTimer;
+	private final Counter rejected;
+
+	public PasswordHashingExecutor(@Value("${bezkoder.app.hashing.threads:0}") int threads,
+			@Value("${bezkoder.app.hashing.queueCapacity:64}") int queueCapacity, MeterRegistry meterRegistry) {
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+		Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+		Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+		this.waitTimer = meterRegistry.timer("auth.hashing.wait");
+		this.latencyTimer = meterRegistry.timer("auth.hashing.latency");
+		this.rejected = meterRegistry.counter("auth.hashing.rejected");
+	}
+
+	/**
+	 * @throws RejectedExecutionException if the queue is full
+	 */
+	public <T> CompletableFuture<T> submit(Supplier<T> work) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		long queuedAt = System.nanoTime();
+		try {
+			executor.execute(() -> {
+				long startedAt = System.nanoTime();
+				waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+				T value = null;
+				Throwable failure = null;
+				try {
+					value = work.get();
+				} catch (Throwable ex) {
+					failure = ex;
+				}
+				latencyTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+				if (failure == null) {
+					result.complete(value);
+				} else {
+					result.completeExceptionally(failure);
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			rejected.increment();
+			throw ex;
+		}
+		return result;
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	private static ThreadFactory threadFactory() {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
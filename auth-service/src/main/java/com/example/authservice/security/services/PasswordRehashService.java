@@ -0,0 +1,57 @@
+package com.example.authservice.security.services;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.example.authservice.repository.UserRepository;
+
+/**
+ * Brings stored hashes up to the current algorithm and work factor. Only a
+ * successful signin knows the plain password, so that is when it happens,
+ * in the background: the hash on the hashing pool, the update on the
+ * application task executor. Under load the rehash is simply skipped and
+ * retried on a later signin.
+ */
+@Service
+public class PasswordRehashService {
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordRehashService.class);
+
+	private final PasswordEncoder encoder;
+	private final PasswordHashingExecutor passwordHashing;
+	private final UserRepository userRepository;
+	private final Executor updateExecutor;
+
+	public PasswordRehashService(PasswordEncoder encoder, PasswordHashingExecutor passwordHashing,
+			UserRepository userRepository, @Qualifier("applicationTaskExecutor") Executor updateExecutor) {
+		this.encoder = encoder;
+		this.passwordHashing = passwordHashing;
+		this.userRepository = userRepository;
+		this.updateExecutor = updateExecutor;
+	}
+
+	public void rehashIfNeeded(UserDetailsImpl user, String rawPassword) {
+		String storedHash = user.getPassword();
+		if (storedHash == null || !encoder.upgradeEncoding(storedHash)) {
+			return;
+		}
+		try {
+			passwordHashing.submit(() -> encoder.encode(rawPassword))
+					.thenApplyAsync(rehashed -> userRepository.updatePasswordHash(user.getId(), storedHash, rehashed),
+							updateExecutor)
+					.whenComplete((updated, ex) -> {
+						if (ex != null) {
+							logger.warn("Rehash failed for user {}: {}", user.getUsername(), ex.getMessage());
+						}
+					});
+		} catch (RejectedExecutionException ex) {
+			// the pool is busy with signins; try again next time
+		}
+	}
+}
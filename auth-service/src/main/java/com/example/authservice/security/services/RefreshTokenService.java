@@ -0,0 +1,164 @@
+package com.example.authservice.security.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.authservice.models.RefreshToken;
+import com.example.authservice.repository.RefreshTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Opaque, single-use refresh tokens. Renewing an access token costs one
+ * SHA-256 and a conditional UPDATE instead of a BCrypt check.
+ *
+ * Each rotation marks the presented token used and issues a successor in
+ * the same family. Presenting a used or revoked token is treated as theft:
+ * the whole family is revoked, logging out both the thief and the user.
+ * Lookups by hash are served from a bounded in-memory cache; whether a
+ * token is still usable is always decided by the database.
+ */
+@Service
+public class RefreshTokenService {
+
+	private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+	public record Issued(String token, String username, Instant expiresAt) {
+	}
+
+	private record Entry(Long id, String familyId, String username, Instant expiresAt) {
+
+		static Entry of(RefreshToken token) {
+			return new Entry(token.getId(), token.getFamilyId(), token.getUsername(), token.getExpiresAt());
+		}
+	}
+
+	private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+
+	private final RefreshTokenRepository refreshTokenRepository;
+	private final Duration lifetime;
+	private final SecureRandom random = new SecureRandom();
+	private final Cache<String, Entry> byHash;
+
+	public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+			@Value("${bezkoder.app.jwtRefreshExpirationMs:604800000}") long refreshExpirationMs,
+			@Value("${bezkoder.app.jwtRefreshCacheSize:10000}") long cacheSize) {
+		this.refreshTokenRepository = refreshTokenRepository;
+		this.lifetime = Duration.ofMillis(refreshExpirationMs);
+		this.byHash = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(lifetime).build();
+	}
+
+	public Duration getLifetime() {
+		return lifetime;
+	}
+
+	/**
+	 * Starts a new token family, e.g. after a password login.
+	 */
+	@Transactional
+	public Issued issue(String username) {
+		return issue(username, UUID.randomUUID().toString());
+	}
+
+	/**
+	 * Exchanges {@code token} for its successor.
+	 *
+	 * @return the new token, or empty if {@code token} is unknown, expired or
+	 *         was already used (in which case its family is revoked)
+	 */
+	@Transactional
+	public Optional<Issued> rotate(String token) {
+		String hash = hash(token);
+		Entry entry = find(hash);
+		if (entry == null || entry.expiresAt().isBefore(Instant.now())) {
+			return Optional.empty();
+		}
+
+		if (refreshTokenRepository.markUsed(entry.id()) == 0) {
+			logger.warn("Refresh token reuse for user {}; revoking token family {}", entry.username(), entry.familyId());
+			refreshTokenRepository.revokeFamily(entry.familyId());
+			byHash.invalidate(hash);
+			return Optional.empty();
+		}
+		byHash.invalidate(hash);
+		return Optional.of(issue(entry.username(), entry.familyId()));
+	}
+
+	/**
+	 * Revokes the family {@code token} belongs to, e.g. on signout.
+	 */
+	@Transactional
+	public void revoke(String token) {
+		String hash = hash(token);
+		Entry entry = find(hash);
+		if (entry != null) {
+			refreshTokenRepository.revokeFamily(entry.familyId());
+			byHash.invalidate(hash);
+		}
+	}
+
+	/**
+	 * Revokes every refresh token of {@code username}, e.g. after a password
+	 * change.
+	 */
+	@Transactional
+	public void revokeAll(String username) {
+		refreshTokenRepository.revokeAllForUser(username);
+		byHash.asMap().values().removeIf(entry -> entry.username().equals(username));
+	}
+
+	@Scheduled(fixedDelayString = "${bezkoder.app.jwtRefreshPurgeMs:3600000}")
+	@Transactional
+	public void purgeExpired() {
+		int purged = refreshTokenRepository.deleteExpired(Instant.now());
+		if (purged > 0) {
+			logger.info("Purged {} expired refresh tokens", purged);
+		}
+	}
+
+	private Issued issue(String username, String familyId) {
+		byte[] bytes = new byte[32];
+		random.nextBytes(bytes);
+		String token = B64.encodeToString(bytes);
+		String hash = hash(token);
+		Instant expiresAt = Instant.now().plus(lifetime);
+
+		RefreshToken saved = refreshTokenRepository.save(new RefreshToken(hash, familyId, username, expiresAt));
+		byHash.put(hash, Entry.of(saved));
+		return new Issued(token, username, expiresAt);
+	}
+
+	private Entry find(String hash) {
+		Entry entry = byHash.getIfPresent(hash);
+		if (entry == null) {
+			entry = refreshTokenRepository.findByTokenHash(hash).map(Entry::of).orElse(null);
+			if (entry != null) {
+				byHash.put(hash, entry);
+			}
+		}
+		return entry;
+	}
+
+	static String hash(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return B64.encodeToString(digest);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.authservice.security.services;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.authservice.models.ERole;
+import com.example.authservice.models.Role;
+import com.example.authservice.repository.RoleRepository;
+
+/**
+ * The {@code roles} table as an immutable map, so signup needs no lookup per
+ * requested role. The map is swapped as a whole: on a schedule
+ * ({@code bezkoder.app.roleCache.refreshMs}) and whenever a role is missing,
+ * e.g. right after it was inserted.
+ */
+@Component
+public class RoleCache {
+
+	private final RoleRepository roleRepository;
+	private volatile Map<ERole, Role> roles = Map.of();
+
+	public RoleCache(RoleRepository roleRepository) {
+		this.roleRepository = roleRepository;
+	}
+
+	/**
+	 * @throws RuntimeException if the role is not in the database
+	 */
+	public Role get(ERole name) {
+		Role role = roles.get(name);
+		if (role == null) {
+			role = refresh().get(name);
+		}
+		if (role == null) {
+			throw new RuntimeException("Error: Role " + name + " not found");
+		}
+		return role;
+	}
+
+	/**
+	 * Maps requested role names as signup accepts them: "admin" is
+	 * {@code ROLE_ADMIN}, anything else {@code ROLE_USER}, none at all
+	 * {@code ROLE_USER}.
+	 */
+	public Set<Role> resolve(Collection<String> requested) {
+		Set<Role> resolved = new HashSet<>();
+		if (requested == null || requested.isEmpty()) {
+			resolved.add(get(ERole.ROLE_USER));
+			return resolved;
+		}
+		for (String role : requested) {
+			resolved.add(get("admin".equalsIgnoreCase(role) ? ERole.ROLE_ADMIN : ERole.ROLE_USER));
+		}
+		return resolved;
+	}
+
+	@Scheduled(fixedDelayString = "${bezkoder.app.roleCache.refreshMs:300000}")
+	public Map<ERole, Role> refresh() {
+		Map<ERole, Role> loaded = new EnumMap<>(ERole.class);
+		for (Role role : roleRepository.findAll()) {
+			loaded.put(role.getName(), role);
+		}
+		roles = Collections.unmodifiableMap(loaded);
+		return roles;
+	}
+}
@@ -0,0 +1,140 @@
+package com.example.authservice.security.services;
+
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.authservice.event.TokenRevokedEvent;
+import com.example.authservice.security.jwt.ReplicaSigningKeys;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Tells the gateways to stop accepting an access token before it expires.
+ *
+ * Signout is open to anyone, so a revocation is only published for a token
+ * whose signature checks out against the key of the replica that signed it
+ * ({@link ReplicaSigningKeys}). A token naming a key no replica publishes
+ * (yet) is still revoked, but for no longer than a token can live; one with
+ * a bad signature is ignored.
+ */
+@Component
+public class TokenRevocationPublisher {
+
+	private static final Logger logger = LoggerFactory.getLogger(TokenRevocationPublisher.class);
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final KafkaTemplate<String, TokenRevokedEvent> kafkaTemplate;
+	private final ReplicaSigningKeys signingKeys;
+	private final String topic;
+	private final long maxLifetimeSeconds;
+
+	public TokenRevocationPublisher(KafkaTemplate<String, TokenRevokedEvent> kafkaTemplate,
+			ReplicaSigningKeys signingKeys,
+			@Value("${bezkoder.app.kafka.topic.revocations:token-revocations}") String topic,
+			@Value("${bezkoder.app.jwtExpirationMs}") long jwtExpirationMs) {
+		this.kafkaTemplate = kafkaTemplate;
+		this.signingKeys = signingKeys;
+		this.topic = topic;
+		this.maxLifetimeSeconds = Math.max(1, jwtExpirationMs / 1000);
+	}
+
+	/**
+	 * Revokes {@code accessToken} unless it has already expired, in which
+	 * case every gateway rejects it anyway.
+	 */
+	public void revoke(String accessToken) {
+		TokenRevokedEvent event = verifiedClaims(accessToken);
+		if (event == null) {
+			return;
+		}
+		if (event.getExpiresAt() <= Instant.now().getEpochSecond()) {
+			logger.debug("Token revocation skipped for {}: already expired", event.getSubject());
+			return;
+		}
+		try {
+			kafkaTemplate.send(topic, event.getSubject(), event);
+		} catch (Exception ex) {
+			logger.error("Kafka failed for token revocation of {}: {}", event.getSubject(), ex.getMessage());
+		}
+	}
+
+	/**
+	 * @return the revocation for {@code token}, or null if it must not be
+	 *         published
+	 */
+	private TokenRevokedEvent verifiedClaims(String token) {
+		TokenRevokedEvent unverified = readClaims(token);
+		if (unverified == null) {
+			logger.warn("Token revocation skipped: not a JWT with jti and exp claims");
+			return null;
+		}
+		PublicKey key = signingKeys.publicKey(readKeyId(token));
+		if (key == null) {
+			long latest = Instant.now().getEpochSecond() + maxLifetimeSeconds;
+			logger.warn("Token revocation for {} is unverified: unknown signing key", unverified.getSubject());
+			return new TokenRevokedEvent(unverified.getTokenId(), unverified.getSubject(),
+					Math.min(unverified.getExpiresAt(), latest));
+		}
+		try {
+			Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+			return new TokenRevokedEvent(claims.getId(), claims.getSubject(),
+					claims.getExpiration().toInstant().getEpochSecond());
+		} catch (ExpiredJwtException ex) {
+			logger.debug("Token revocation skipped for {}: already expired", unverified.getSubject());
+			return null;
+		} catch (JwtException | IllegalArgumentException ex) {
+			logger.warn("Token revocation skipped: {}", ex.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * @return the token's jti, sub and exp, or null if it is not a JWT or
+	 *         lacks jti or exp
+	 */
+	static TokenRevokedEvent readClaims(String token) {
+		JsonNode claims = readPart(token, 1);
+		if (claims == null) {
+			return null;
+		}
+		JsonNode id = claims.get("jti");
+		JsonNode expiration = claims.get("exp");
+		if (id == null || !id.isTextual() || expiration == null || !expiration.canConvertToLong()) {
+			return null;
+		}
+		JsonNode subject = claims.get("sub");
+		return new TokenRevokedEvent(id.asText(), subject == null ? null : subject.asText(), expiration.asLong());
+	}
+
+	private static String readKeyId(String token) {
+		JsonNode header = readPart(token, 0);
+		JsonNode kid = header == null ? null : header.get(JwsHeader.KEY_ID);
+		return kid == null || !kid.isTextual() ? null : kid.asText();
+	}
+
+	private static JsonNode readPart(String token, int index) {
+		String[] parts = token == null ? new String[0] : token.split("\\.");
+		if (parts.length != 3) {
+			return null;
+		}
+		try {
+			return objectMapper.readTree(Base64.getUrlDecoder().decode(parts[index]));
+		} catch (Exception ex) {
+			return null;
+		}
+	}
+}
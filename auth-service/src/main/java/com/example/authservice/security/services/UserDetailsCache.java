@@ -0,0 +1,41 @@
+package com.example.authservice.security.services;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Short-lived cache of users loaded from the database, for requests whose
+ * token does not carry enough claims to build the principal (tokens issued
+ * before the {@code uid} claim, or {@code bezkoder.app.principalSource=database}).
+ * A TTL of 0 disables it.
+ */
+@Component
+public class UserDetailsCache {
+
+	private final Cache<String, UserDetailsImpl> cache;
+
+	public UserDetailsCache(@Value("${bezkoder.app.userCache.ttlMs:30000}") long ttlMs,
+			@Value("${bezkoder.app.userCache.maxSize:10000}") long maxSize) {
+		this.cache = ttlMs <= 0 ? null
+				: Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(Duration.ofMillis(ttlMs)).build();
+	}
+
+	public UserDetailsImpl get(String username, Function<String, UserDetailsImpl> loader) {
+		return cache == null ? loader.apply(username) : cache.get(username, loader);
+	}
+
+	/**
+	 * Call after changing anything the principal exposes, e.g. roles.
+	 */
+	public void evict(String username) {
+		if (cache != null) {
+			cache.invalidate(username);
+		}
+	}
+}
@@ -24,6 +24,9 @@ public class UserDetailsImpl implements UserDetails {
 
 	private Collection<? extends GrantedAuthority> authorities;
 
+	// set when built from a loaded user, so signin needs no second lookup
+	private boolean forcePasswordChange;
+
 	public UserDetailsImpl(Long id, String username, String email, String password,
 			Collection<? extends GrantedAuthority> authorities) {
 		this.id = id;
@@ -37,7 +40,21 @@ public class UserDetailsImpl implements UserDetails {
 		List<GrantedAuthority> authorities = user.getRoles().stream()
 				.map(role -> new SimpleGrantedAuthority(role.getName().name())).collect(Collectors.toList());
 
-		return new UserDetailsImpl(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), authorities);
+		UserDetailsImpl details = new UserDetailsImpl(user.getId(), user.getUsername(), user.getEmail(),
+				user.getPassword(), authorities);
+		details.forcePasswordChange = user.isForcePasswordChange();
+		return details;
+	}
+
+	/**
+	 * Principal rebuilt from a verified token or gateway identity. It has no
+	 * password, so it can only identify the caller, not re-authenticate them.
+	 */
+	public static UserDetailsImpl fromClaims(Long id, String username, String email, Collection<String> roles) {
+		List<GrantedAuthority> authorities = roles.stream()
+				.<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+
+		return new UserDetailsImpl(id, username, email, null, authorities);
 	}
 
 	@Override
@@ -53,6 +70,10 @@ public class UserDetailsImpl implements UserDetails {
 		return email;
 	}
 
+	public boolean isForcePasswordChange() {
+		return forcePasswordChange;
+	}
+
 	@Override
 	public String getPassword() {
 		return password;
@@ -0,0 +1,307 @@
+package com.example.authservice.security.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.authservice.models.Role;
+import com.example.authservice.payload.request.UserImportRow;
+import com.example.authservice.payload.response.UserImportResponse;
+import com.example.authservice.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Bulk user provisioning. The upload is read line by line and handled in
+ * chunks of {@code bezkoder.app.import.chunkSize} rows:
+ * <ol>
+ * <li>rows are validated like a signup, and duplicates within the chunk or
+ * against existing users (one query per chunk) are rejected;</li>
+ * <li>passwords are hashed in parallel on a pool of
+ * {@code bezkoder.app.import.hashThreads} threads (default: one per core),
+ * separate from the signin pool so an import cannot make logins 503;</li>
+ * <li>{@code users} and {@code user_roles} are written with two JDBC batches
+ * in one transaction. Role rows are linked by username with
+ * INSERT ... SELECT, so no generated ids have to be read back.</li>
+ * </ol>
+ * A bad row is reported with its line number and never aborts the import.
+ * If a chunk's batch still fails (a concurrent signup took a name), its rows
+ * are retried one at a time so only the offending rows fail.
+ */
+@Service
+public class UserImportService implements DisposableBean {
+
+	private static final String INSERT_USER = "insert into users"
+			+ " (username, email, password, password_last_changed_at, force_password_change)"
+			+ " values (?, ?, ?, ?, false)";
+	private static final String INSERT_USER_ROLE = "insert into user_roles (user_id, role_id)"
+			+ " select u.id, ? from users u where u.username = ?";
+
+	private final UserRepository userRepository;
+	private final RoleCache roleCache;
+	private final PasswordEncoder encoder;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final Validator validator;
+	private final ObjectMapper objectMapper;
+	private final int chunkSize;
+	private final ExecutorService hashPool;
+
+	public UserImportService(UserRepository userRepository, RoleCache roleCache, PasswordEncoder encoder,
+			JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, Validator validator,
+			ObjectMapper objectMapper, @Value("${bezkoder.app.import.chunkSize:500}") int chunkSize,
+			@Value("${bezkoder.app.import.hashThreads:0}") int hashThreads) {
+		this.userRepository = userRepository;
+		this.roleCache = roleCache;
+		this.encoder = encoder;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.validator = validator;
+		this.objectMapper = objectMapper;
+		this.chunkSize = chunkSize;
+		int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger count = new AtomicInteger();
+		this.hashPool = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "import-hash-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * One JSON object per line: {@code {"username", "email", "password", "roles": [...]}}.
+	 */
+	public UserImportResponse importNdjson(BufferedReader reader) throws IOException {
+		return run(reader, false);
+	}
+
+	/**
+	 * A header line naming the columns {@code username,email,password,roles},
+	 * then one user per line. Several roles are separated by {@code |};
+	 * fields containing commas or quotes are double-quoted.
+	 */
+	public UserImportResponse importCsv(BufferedReader reader) throws IOException {
+		return run(reader, true);
+	}
+
+	@Override
+	public void destroy() {
+		hashPool.shutdown();
+	}
+
+	private record Row(long line, UserImportRow user) {
+	}
+
+	private UserImportResponse run(BufferedReader reader, boolean csv) throws IOException {
+		UserImportResponse result = new UserImportResponse();
+		Map<String, Integer> columns = null;
+		List<Row> chunk = new ArrayList<>(chunkSize);
+		long lineNumber = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.isBlank()) {
+				continue;
+			}
+			if (csv && columns == null) {
+				columns = header(line);
+				continue;
+			}
+
+			UserImportRow user;
+			try {
+				user = csv ? parseCsv(line, columns) : objectMapper.readValue(line, UserImportRow.class);
+			} catch (JsonProcessingException | IllegalArgumentException ex) {
+				result.addError(lineNumber, null, "Malformed row");
+				continue;
+			}
+			String invalid = validate(user);
+			if (invalid != null) {
+				result.addError(lineNumber, user.getUsername(), invalid);
+				continue;
+			}
+
+			chunk.add(new Row(lineNumber, user));
+			if (chunk.size() == chunkSize) {
+				importChunk(chunk, result);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			importChunk(chunk, result);
+		}
+		return result;
+	}
+
+	private void importChunk(List<Row> chunk, UserImportResponse result) {
+		List<Row> rows = withoutDuplicates(chunk, result);
+		if (rows.isEmpty()) {
+			return;
+		}
+
+		List<CompletableFuture<String>> hashes = rows.stream()
+				.map(row -> CompletableFuture.supplyAsync(() -> encoder.encode(row.user().getPassword()), hashPool))
+				.toList();
+		List<String> encoded = hashes.stream().map(CompletableFuture::join).toList();
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> insert(rows, encoded));
+			result.addImported(rows.size());
+		} catch (DataIntegrityViolationException batchFailed) {
+			for (int i = 0; i < rows.size(); i++) {
+				List<Row> single = List.of(rows.get(i));
+				List<String> singleHash = List.of(encoded.get(i));
+				try {
+					transactionTemplate.executeWithoutResult(status -> insert(single, singleHash));
+					result.addImported(1);
+				} catch (DataIntegrityViolationException ex) {
+					result.addError(single.get(0).line(), single.get(0).user().getUsername(),
+							"Error: Username or email already exists");
+				}
+			}
+		}
+	}
+
+	private List<Row> withoutDuplicates(List<Row> chunk, UserImportResponse result) {
+		Set<String> usernames = new LinkedHashSet<>();
+		Set<String> emails = new LinkedHashSet<>();
+		for (Row row : chunk) {
+			usernames.add(row.user().getUsername());
+			emails.add(row.user().getEmail());
+		}
+		Set<String> takenUsernames = new HashSet<>();
+		Set<String> takenEmails = new HashSet<>();
+		for (UserRepository.UsernameAndEmail existing : userRepository.findByUsernameInOrEmailIn(usernames, emails)) {
+			takenUsernames.add(normalize(existing.getUsername()));
+			takenEmails.add(normalize(existing.getEmail()));
+		}
+
+		List<Row> rows = new ArrayList<>(chunk.size());
+		for (Row row : chunk) {
+			// the taken sets also catch repeats within the chunk
+			String username = normalize(row.user().getUsername());
+			String email = normalize(row.user().getEmail());
+			if (takenUsernames.contains(username)) {
+				result.addError(row.line(), row.user().getUsername(), "Error: Username already taken");
+			} else if (takenEmails.contains(email)) {
+				result.addError(row.line(), row.user().getUsername(), "Error: Email already in use");
+			} else {
+				takenUsernames.add(username);
+				takenEmails.add(email);
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+
+	private void insert(List<Row> rows, List<String> encoded) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		List<Object[]> users = new ArrayList<>(rows.size());
+		List<Object[]> userRoles = new ArrayList<>(rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			UserImportRow user = rows.get(i).user();
+			users.add(new Object[] { user.getUsername(), user.getEmail(), encoded.get(i), now });
+			for (Role role : roleCache.resolve(user.getRoles())) {
+				userRoles.add(new Object[] { role.getId(), user.getUsername() });
+			}
+		}
+		jdbcTemplate.batchUpdate(INSERT_USER, users);
+		jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles);
+	}
+
+	private String validate(UserImportRow user) {
+		Set<ConstraintViolation<UserImportRow>> violations = validator.validate(user);
+		if (violations.isEmpty()) {
+			return null;
+		}
+		return violations.stream()
+				.map(v -> v.getPropertyPath() + " " + v.getMessage())
+				.sorted()
+				.collect(Collectors.joining(", "));
+	}
+
+	private static Map<String, Integer> header(String line) {
+		List<String> names = splitCsv(line);
+		Map<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < names.size(); i++) {
+			columns.put(normalize(names.get(i).trim()), i);
+		}
+		return columns;
+	}
+
+	private static UserImportRow parseCsv(String line, Map<String, Integer> columns) {
+		List<String> fields = splitCsv(line);
+		String roles = field(fields, columns, "roles");
+		return new UserImportRow(field(fields, columns, "username"), field(fields, columns, "email"),
+				field(fields, columns, "password"),
+				roles == null || roles.isBlank() ? null : Set.of(roles.split("\\|")));
+	}
+
+	private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+		Integer index = columns.get(name);
+		return index == null || index >= fields.size() ? null : fields.get(index);
+	}
+
+	/**
+	 * Splits one CSV line (RFC 4180 quoting, no embedded line breaks).
+	 */
+	static List<String> splitCsv(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("Unterminated quote");
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private static String normalize(String value) {
+		return value.toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,111 @@
+package com.example.authservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.example.authservice.models.ERole;
+import com.example.authservice.models.Role;
+import com.example.authservice.models.User;
+import com.example.authservice.security.services.RoleCache;
+import com.example.authservice.security.services.UserDetailsImpl;
+import com.example.authservice.security.services.UserDetailsServiceImpl;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+@Import({ UserDetailsServiceImpl.class, RoleCache.class })
+class UserRepositoryQueryCountTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private UserDetailsServiceImpl userDetailsService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RoleCache roleCache;
+
+	private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		Role userRole = entityManager.persist(new Role(ERole.ROLE_USER));
+		Role adminRole = entityManager.persist(new Role(ERole.ROLE_ADMIN));
+		User user = new User("alice", "alice@example.com", encoder.encode("secret"));
+		user.setRoles(Set.of(userRole, adminRole));
+		user.setPasswordLastChangedAt(LocalDateTime.now());
+		entityManager.persistAndFlush(user);
+		entityManager.clear();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void testSigninLoadsUserAndRolesInOneQuery() {
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setUserDetailsService(userDetailsService);
+		provider.setPasswordEncoder(encoder);
+
+		Authentication authentication = provider
+				.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+		UserDetailsImpl principal = (UserDetailsImpl) authentication.getPrincipal();
+		assertEquals(2, principal.getAuthorities().size());
+		assertFalse(principal.isForcePasswordChange());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void testSignupConflictCheckIsOneQuery() {
+		List<UserRepository.UsernameAndEmail> conflicts = userRepository.findByUsernameOrEmail("bob",
+				"alice@example.com");
+
+		assertEquals(1, conflicts.size());
+		assertEquals("alice", conflicts.get(0).getUsername());
+		assertTrue(userRepository.findByUsernameOrEmail("bob", "bob@example.com").isEmpty());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void testSignupWithCachedRolesLooksUpNoRole() {
+		roleCache.refresh();
+		statistics.clear();
+
+		User user = new User("bob", "bob@example.com", "hash");
+		user.setRoles(Set.of(roleCache.get(ERole.ROLE_USER)));
+		userRepository.saveAndFlush(user);
+		entityManager.clear();
+
+		assertEquals(2, statistics.getPrepareStatementCount()); // users row + user_roles row
+		assertEquals(1, userRepository.findWithRolesByUsername("bob").orElseThrow().getRoles().size());
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.authservice.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.example.authservice.security.services.UserDetailsCache;
+import com.example.authservice.security.services.UserDetailsImpl;
+import com.example.identity.InternalIdentity;
+
+@ExtendWith(MockitoExtension.class)
+class AuthJwtFilterTest {
+
+	@Mock
+	private JwtUtils jwtUtils;
+
+	@Mock
+	private UserDetailsService userDetailsService;
+
+	@Mock
+	private UserDetailsCache userDetailsCache;
+
+	@InjectMocks
+	private AuthJwtFilter authJwtFilter;
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void testBuildsPrincipalFromIdentityWithoutLoadingUser() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+		request.setAttribute(InternalIdentity.ATTRIBUTE,
+				new InternalIdentity("alice", List.of("ROLE_USER"), Long.MAX_VALUE, 7L, "alice@example.com"));
+
+		authJwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		UserDetailsImpl principal = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication()
+				.getPrincipal();
+		assertEquals(7L, principal.getId());
+		assertEquals("alice@example.com", principal.getEmail());
+		assertEquals("ROLE_USER", principal.getAuthorities().iterator().next().getAuthority());
+		verifyNoInteractions(userDetailsService, userDetailsCache);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testFallsBackToUserLookupWithoutUserIdClaim() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+		request.setAttribute(InternalIdentity.ATTRIBUTE,
+				new InternalIdentity("alice", List.of("ROLE_USER"), Long.MAX_VALUE));
+		UserDetailsImpl loaded = UserDetailsImpl.fromClaims(7L, "alice", "alice@example.com", List.of("ROLE_USER"));
+		when(userDetailsCache.get(any(), any(Function.class))).thenReturn(loaded);
+
+		authJwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		assertEquals(loaded, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+		verify(userDetailsCache).get(any(), any(Function.class));
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.authservice.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseCookie;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtUtilsTest {
+
+	private final JwtSigningKeys signingKeys = new JwtSigningKeys(60_000);
+	private final JwtUtils jwtUtils = new JwtUtils(signingKeys);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60_000);
+		ReflectionTestUtils.setField(jwtUtils, "jwtRefreshCookieName", "sabiRefresh");
+		ReflectionTestUtils.setField(jwtUtils, "jwtRefreshCookiePath", "/api/auth");
+	}
+
+	@Test
+	void testTokensStillVerifyAfterRotation() {
+		String token = jwtUtils.generateTokenWithRoles("alice", List.of("ROLE_USER"), false);
+
+		signingKeys.rotate();
+
+		assertTrue(jwtUtils.validateJwtToken(token));
+		assertEquals("alice", jwtUtils.getUserNameFromJwtToken(token));
+	}
+
+	@Test
+	void testJwksPublishesCurrentAndNextKey() {
+		String signingKid = signingKeys.current().kid();
+		List<?> keys = (List<?>) signingKeys.jwks().get("keys");
+		assertEquals(2, keys.size());
+
+		signingKeys.rotate();
+
+		List<?> afterRotation = (List<?>) signingKeys.jwks().get("keys");
+		assertEquals(3, afterRotation.size());
+		assertTrue(afterRotation.stream().anyMatch(k -> signingKid.equals(((Map<?, ?>) k).get("kid"))));
+	}
+
+	@Test
+	void testRejectsTokenFromOtherIssuer() {
+		JwtUtils other = new JwtUtils(new JwtSigningKeys(60_000));
+		ReflectionTestUtils.setField(other, "jwtExpirationMs", 60_000);
+		String foreign = other.generateTokenFromUsername("mallory");
+
+		assertFalse(jwtUtils.validateJwtToken(foreign));
+	}
+
+	@Test
+	void testRefreshCookieIsOnlySentToTheAuthPaths() {
+		ResponseCookie issued = jwtUtils.generateRefreshCookie("refresh-token", Duration.ofDays(7));
+		ResponseCookie cleared = jwtUtils.getCleanRefreshCookie();
+
+		assertEquals("/api/auth", issued.getPath());
+		assertEquals(issued.getPath(), cleared.getPath());
+		assertEquals(Duration.ZERO, cleared.getMaxAge());
+	}
+}
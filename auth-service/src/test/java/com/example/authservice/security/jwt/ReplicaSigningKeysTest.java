@@ -0,0 +1,57 @@
+package com.example.authservice.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServiceUnavailable;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ReplicaSigningKeysTest {
+
+	private static final String JWKS_URL = "http://replica-b:8085/api/auth/jwks";
+
+	private final JwtSigningKeys ownKeys = new JwtSigningKeys(60_000);
+	private final JwtSigningKeys otherKeys = new JwtSigningKeys(60_000);
+	private final DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+	private final MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+	private final ReplicaSigningKeys replicaKeys = new ReplicaSigningKeys(ownKeys, discoveryClient,
+			new RestTemplateBuilder(customizer), "auth-service", "/api/auth/jwks", 60_000, 3_600_000);
+
+	@Test
+	void testKeepsAReplicasKeysWhileItIsUnreachable() throws Exception {
+		when(discoveryClient.getInstances("auth-service")).thenReturn(List.of(
+				new DefaultServiceInstance("b", "auth-service", "replica-b", 8085, false)));
+		MockRestServiceServer server = customizer.getServer();
+		server.expect(requestTo(JWKS_URL)).andRespond(
+				withSuccess(new ObjectMapper().writeValueAsString(otherKeys.jwks()), MediaType.APPLICATION_JSON));
+		server.expect(requestTo(JWKS_URL)).andRespond(withServiceUnavailable());
+		String kid = otherKeys.current().kid();
+
+		replicaKeys.refresh();
+		assertEquals(otherKeys.current().publicKey(), replicaKeys.publicKey(kid));
+
+		replicaKeys.refresh();
+		assertEquals(otherKeys.current().publicKey(), replicaKeys.publicKey(kid));
+		server.verify();
+	}
+
+	@Test
+	void testOwnKeysNeedNoFetch() {
+		assertEquals(ownKeys.current().publicKey(), replicaKeys.publicKey(ownKeys.current().kid()));
+		assertNull(replicaKeys.publicKey(null));
+	}
+}
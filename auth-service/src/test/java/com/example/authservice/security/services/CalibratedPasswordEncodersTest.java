@@ -0,0 +1,44 @@
+package com.example.authservice.security.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class CalibratedPasswordEncodersTest {
+
+	@Test
+	void testMinimumStrengthWinsOverTinyTarget() {
+		assertEquals(6, CalibratedPasswordEncoders.calibrateBcrypt(0, 6));
+	}
+
+	@Test
+	void testLegacyBcryptHashStillMatchesAndIsFlaggedForUpgrade() {
+		PasswordEncoder encoder = CalibratedPasswordEncoders.create("bcrypt", 0, 5, 1024);
+		String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+		assertTrue(encoder.matches("secret", legacy));
+		assertTrue(encoder.upgradeEncoding(legacy));
+
+		String current = encoder.encode("secret");
+		assertTrue(current.startsWith("{bcrypt}"));
+		assertFalse(encoder.upgradeEncoding(current));
+	}
+
+	@Test
+	void testArgon2UpgradesBcryptHashes() {
+		PasswordEncoder encoder = CalibratedPasswordEncoders.create("argon2", 0, 4, 1024);
+		String bcrypt = CalibratedPasswordEncoders.create("bcrypt", 0, 4, 1024).encode("secret");
+
+		assertTrue(encoder.matches("secret", bcrypt));
+		assertTrue(encoder.upgradeEncoding(bcrypt));
+
+		String argon2 = encoder.encode("secret");
+		assertTrue(argon2.startsWith("{argon2}"));
+		assertTrue(encoder.matches("secret", argon2));
+		assertFalse(encoder.upgradeEncoding(argon2));
+	}
+}
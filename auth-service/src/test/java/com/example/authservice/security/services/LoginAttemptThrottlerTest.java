@@ -0,0 +1,151 @@
+package com.example.authservice.security.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginAttemptThrottlerTest {
+
+	private final AtomicLong clock = new AtomicLong();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final LoginAttemptThrottler throttler = new LoginAttemptThrottler(300, 5, 50, 30, 900, 10_000, 1,
+			meterRegistry, clock::get);
+
+	@Test
+	void testLocksUserAfterMaxFailures() {
+		for (int i = 0; i < 4; i++) {
+			throttler.recordFailure("alice", "10.0.0.1");
+			assertEquals(0, throttler.retryAfterSeconds("alice", "10.0.0.1"));
+		}
+		throttler.recordFailure("alice", "10.0.0.1");
+
+		assertEquals(30, throttler.retryAfterSeconds("alice", "10.0.0.2"));
+		assertEquals(0, throttler.retryAfterSeconds("bob", "10.0.0.1"));
+		assertEquals(1, meterRegistry.get("auth.login.lockouts").tag("key", "user").counter().count());
+	}
+
+	@Test
+	void testLockoutDoublesOnRepeatOffence() {
+		failTimes("alice", 5);
+		assertEquals(30, throttler.retryAfterSeconds("alice", "10.0.0.1"));
+
+		advanceSeconds(31);
+		failTimes("alice", 5);
+		assertEquals(60, throttler.retryAfterSeconds("alice", "10.0.0.1"));
+
+		advanceSeconds(61);
+		failTimes("alice", 5);
+		assertEquals(120, throttler.retryAfterSeconds("alice", "10.0.0.1"));
+	}
+
+	@Test
+	void testLockoutResetsAfterQuietPeriod() {
+		failTimes("alice", 5);
+		advanceSeconds(31);
+		failTimes("alice", 5);
+		assertEquals(60, throttler.retryAfterSeconds("alice", "10.0.0.1"));
+
+		advanceSeconds(61 + 600);
+		failTimes("alice", 5);
+		assertEquals(30, throttler.retryAfterSeconds("alice", "10.0.0.1"));
+	}
+
+	@Test
+	void testOldFailuresSlideOutOfTheWindow() {
+		failTimes("alice", 4);
+		advanceSeconds(600);
+		failTimes("alice", 4);
+
+		assertEquals(0, throttler.retryAfterSeconds("alice", "10.0.0.1"));
+	}
+
+	@Test
+	void testSuccessClearsUserButNotIp() {
+		failTimes("alice", 4);
+		throttler.recordSuccess("alice");
+		failTimes("alice", 4);
+
+		assertEquals(0, throttler.retryAfterSeconds("alice", "10.0.0.1"));
+	}
+
+	// Credential stuffing: 10k attempts from one address, a different username
+	// each time. Only attempts that pass the check would reach BCrypt.
+	@Test
+	void testCredentialStuffingReachesHasherOnlyUntilIpIsLocked() {
+		int hashed = 0;
+		for (int i = 0; i < 10_000; i++) {
+			String username = "user" + i;
+			if (throttler.retryAfterSeconds(username, "203.0.113.7") > 0) {
+				continue;
+			}
+			hashed++;
+			throttler.recordFailure(username, "203.0.113.7");
+		}
+
+		assertEquals(50, hashed);
+		assertEquals(9_950, meterRegistry.get("auth.login.throttled").tag("key", "ip").counter().count());
+	}
+
+	@Test
+	void testClientIpTakesTheHopTheGatewayAppended() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr("172.18.0.5");
+		assertEquals("172.18.0.5", throttler.clientIp(request));
+
+		request.addHeader("X-Forwarded-For", "198.51.100.4");
+		assertEquals("198.51.100.4", throttler.clientIp(request));
+	}
+
+	// The client sends its own X-Forwarded-For and the gateway appends the real
+	// address; rotating the spoofed part must not give the attacker fresh keys.
+	@Test
+	void testSpoofedForwardedHopsDoNotEscapeIpLockout() {
+		for (int i = 0; i < 50; i++) {
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			request.setRemoteAddr("172.18.0.5");
+			request.addHeader("X-Forwarded-For", "10.9." + i + ".1, 203.0.113.7");
+			String clientIp = throttler.clientIp(request);
+			assertEquals("203.0.113.7", clientIp);
+			throttler.recordFailure("user" + i, clientIp);
+		}
+
+		assertEquals(30, throttler.retryAfterSeconds("someone-else", "203.0.113.7"));
+	}
+
+	@Test
+	void testClientIpSkipsEveryTrustedHop() {
+		LoginAttemptThrottler behindTwoProxies = new LoginAttemptThrottler(300, 5, 50, 30, 900, 10_000, 2,
+				new SimpleMeterRegistry(), clock::get);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("X-Forwarded-For", "1.2.3.4, 198.51.100.4, 172.18.0.2");
+		assertEquals("198.51.100.4", behindTwoProxies.clientIp(request));
+
+		LoginAttemptThrottler direct = new LoginAttemptThrottler(300, 5, 50, 30, 900, 10_000, 0,
+				new SimpleMeterRegistry(), clock::get);
+		request.setRemoteAddr("172.18.0.5");
+		assertEquals("172.18.0.5", direct.clientIp(request));
+	}
+
+	@Test
+	void testTracksKeysGauge() {
+		throttler.recordFailure("alice", "10.0.0.1");
+		assertTrue(meterRegistry.get("auth.login.tracked-keys").gauge().value() >= 1);
+	}
+
+	private void failTimes(String username, int times) {
+		for (int i = 0; i < times; i++) {
+			throttler.recordFailure(username, "10.0.0.1");
+		}
+	}
+
+	private void advanceSeconds(long seconds) {
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+	}
+}
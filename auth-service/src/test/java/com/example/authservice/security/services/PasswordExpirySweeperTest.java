@@ -0,0 +1,54 @@
+package com.example.authservice.security.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.example.authservice.models.User;
+import com.example.authservice.repository.UserRepository;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class PasswordExpirySweeperTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void testFlagsOnlyExpiredUsersAcrossPages() {
+		LocalDateTime now = LocalDateTime.now();
+		Long first = persist("old1", now.minusDays(100));
+		Long second = persist("old2", now.minusDays(95));
+		Long third = persist("old3", now.minusDays(95));
+		Long fresh = persist("fresh", now.minusDays(1));
+		Long never = persist("never", null);
+
+		PasswordExpirySweeper sweeper = new PasswordExpirySweeper(userRepository, 90L * 24 * 60, 2);
+
+		assertEquals(3, sweeper.sweep());
+		entityManager.clear();
+		assertTrue(forced(first) && forced(second) && forced(third));
+		assertFalse(forced(fresh) || forced(never));
+
+		assertEquals(0, sweeper.sweep());
+	}
+
+	private Long persist(String username, LocalDateTime passwordLastChangedAt) {
+		User user = new User(username, username + "@example.com", "hash");
+		user.setPasswordLastChangedAt(passwordLastChangedAt);
+		return entityManager.persistAndFlush(user).getId();
+	}
+
+	private boolean forced(Long id) {
+		return userRepository.findById(id).orElseThrow().isForcePasswordChange();
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.authservice.security.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingExecutorTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, meterRegistry);
+
+	@AfterEach
+	void tearDown() {
+		executor.destroy();
+	}
+
+	@Test
+	void testRejectsOnceThreadAndQueueAreFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		CompletableFuture<String> running = executor.submit(() -> {
+			started.countDown();
+			await(release);
+			return "first";
+		});
+		started.await(5, TimeUnit.SECONDS);
+		CompletableFuture<String> queued = executor.submit(() -> "second");
+
+		assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> "third"));
+		assertEquals(1, meterRegistry.get("auth.hashing.queue.depth").gauge().value());
+
+		release.countDown();
+		assertEquals("first", running.get(5, TimeUnit.SECONDS));
+		assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+		assertEquals(1, meterRegistry.get("auth.hashing.rejected").counter().count());
+		assertEquals(2, meterRegistry.get("auth.hashing.latency").timer().count());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.example.authservice.security.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.authservice.models.RefreshToken;
+import com.example.authservice.repository.RefreshTokenRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+	@Mock
+	private RefreshTokenRepository refreshTokenRepository;
+
+	private RefreshTokenService refreshTokenService;
+
+	@BeforeEach
+	void setUp() {
+		refreshTokenService = new RefreshTokenService(refreshTokenRepository, 60_000, 100);
+	}
+
+	private void stubSave() {
+		when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(inv -> {
+			RefreshToken token = inv.getArgument(0);
+			ReflectionTestUtils.setField(token, "id", 1L);
+			return token;
+		});
+	}
+
+	@Test
+	void testRotateIssuesSuccessorInSameFamily() {
+		stubSave();
+		RefreshTokenService.Issued first = refreshTokenService.issue("alice");
+		when(refreshTokenRepository.markUsed(1L)).thenReturn(1);
+
+		RefreshTokenService.Issued second = refreshTokenService.rotate(first.token()).orElseThrow();
+
+		assertEquals("alice", second.username());
+		assertNotEquals(first.token(), second.token());
+		ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+		verify(refreshTokenRepository, times(2)).save(saved.capture());
+		assertEquals(saved.getAllValues().get(0).getFamilyId(), saved.getAllValues().get(1).getFamilyId());
+		verify(refreshTokenRepository, never()).revokeFamily(any());
+	}
+
+	@Test
+	void testReuseRevokesFamily() {
+		stubSave();
+		RefreshTokenService.Issued first = refreshTokenService.issue("alice");
+		when(refreshTokenRepository.markUsed(1L)).thenReturn(0);
+
+		assertTrue(refreshTokenService.rotate(first.token()).isEmpty());
+
+		ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+		verify(refreshTokenRepository).save(saved.capture());
+		verify(refreshTokenRepository).revokeFamily(saved.getValue().getFamilyId());
+	}
+
+	@Test
+	void testUnknownOrExpiredTokenIsRejected() {
+		String expiredHash = RefreshTokenService.hash("expired");
+		when(refreshTokenRepository.findByTokenHash(any())).thenAnswer(inv -> expiredHash.equals(inv.getArgument(0))
+				? Optional.of(new RefreshToken(expiredHash, "family", "alice", Instant.now().minusSeconds(1)))
+				: Optional.empty());
+
+		assertTrue(refreshTokenService.rotate("unknown").isEmpty());
+		assertTrue(refreshTokenService.rotate("expired").isEmpty());
+		verify(refreshTokenRepository, never()).markUsed(any());
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.authservice.security.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.authservice.models.ERole;
+import com.example.authservice.models.Role;
+import com.example.authservice.repository.RoleRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RoleCacheTest {
+
+	@Mock
+	private RoleRepository roleRepository;
+
+	@InjectMocks
+	private RoleCache roleCache;
+
+	@Test
+	void testLoadsAllRolesOnceForRepeatedLookups() {
+		Role user = new Role(ERole.ROLE_USER);
+		Role admin = new Role(ERole.ROLE_ADMIN);
+		when(roleRepository.findAll()).thenReturn(List.of(user, admin));
+
+		assertSame(user, roleCache.get(ERole.ROLE_USER));
+		assertSame(admin, roleCache.get(ERole.ROLE_ADMIN));
+		assertSame(user, roleCache.get(ERole.ROLE_USER));
+
+		verify(roleRepository, times(1)).findAll();
+	}
+
+	@Test
+	void testReloadsWhenRoleIsMissing() {
+		Role user = new Role(ERole.ROLE_USER);
+		Role admin = new Role(ERole.ROLE_ADMIN);
+		when(roleRepository.findAll()).thenReturn(List.of(user), List.of(user, admin));
+
+		roleCache.refresh();
+		assertSame(admin, roleCache.get(ERole.ROLE_ADMIN));
+		verify(roleRepository, times(2)).findAll();
+	}
+
+	@Test
+	void testThrowsWhenRoleIsNotInDatabase() {
+		when(roleRepository.findAll()).thenReturn(List.of());
+
+		RuntimeException ex = assertThrows(RuntimeException.class, () -> roleCache.get(ERole.ROLE_ADMIN));
+		assertEquals("Error: Role ROLE_ADMIN not found", ex.getMessage());
+	}
+}
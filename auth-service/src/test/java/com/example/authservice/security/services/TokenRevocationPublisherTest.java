@@ -0,0 +1,101 @@
+package com.example.authservice.security.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.authservice.event.TokenRevokedEvent;
+import com.example.authservice.security.jwt.JwtSigningKeys;
+import com.example.authservice.security.jwt.JwtUtils;
+import com.example.authservice.security.jwt.ReplicaSigningKeys;
+
+import io.jsonwebtoken.Claims;
+
+class TokenRevocationPublisherTest {
+
+	private static final long EXPIRATION_MS = 60_000;
+
+	@SuppressWarnings("unchecked")
+	private final KafkaTemplate<String, TokenRevokedEvent> kafkaTemplate = mock(KafkaTemplate.class);
+	private final ReplicaSigningKeys replicaKeys = mock(ReplicaSigningKeys.class);
+	private final TokenRevocationPublisher publisher = new TokenRevocationPublisher(kafkaTemplate, replicaKeys,
+			"revocations", EXPIRATION_MS);
+
+	// Signed by another replica, whose key this instance fetched from its JWKS.
+	@Test
+	void testRevokesTokenSignedByAnotherReplica() {
+		JwtSigningKeys otherKeys = new JwtSigningKeys(EXPIRATION_MS);
+		JwtUtils otherReplica = jwtUtils(otherKeys, 60_000);
+		String token = otherReplica.generateTokenWithRoles("alice", List.of("ROLE_USER"), false);
+		Claims claims = otherReplica.getAllClaimsFromToken(token);
+		when(replicaKeys.publicKey(otherKeys.current().kid())).thenReturn(otherKeys.current().publicKey());
+
+		publisher.revoke(token);
+
+		TokenRevokedEvent event = published("alice");
+		assertEquals(claims.getId(), event.getTokenId());
+		assertEquals(claims.getExpiration().toInstant().getEpochSecond(), event.getExpiresAt());
+	}
+
+	@Test
+	void testSkipsTokensWhoseSignatureDoesNotMatchTheirKey() {
+		JwtSigningKeys forgerKeys = new JwtSigningKeys(EXPIRATION_MS);
+		String forged = jwtUtils(forgerKeys, 60_000).generateTokenWithRoles("alice", List.of("ROLE_USER"), false);
+		when(replicaKeys.publicKey(forgerKeys.current().kid()))
+				.thenReturn(new JwtSigningKeys(EXPIRATION_MS).current().publicKey());
+
+		publisher.revoke(forged);
+
+		verify(kafkaTemplate, never()).send(anyString(), any(), any());
+	}
+
+	// An unknown key cannot pin a revocation for longer than a token lives.
+	@Test
+	void testClampsUnverifiableTokensToOneTokenLifetime() {
+		String token = jwtUtils(new JwtSigningKeys(EXPIRATION_MS), 864_000_000)
+				.generateTokenWithRoles("alice", List.of("ROLE_USER"), false);
+
+		publisher.revoke(token);
+
+		long latest = Instant.now().getEpochSecond() + EXPIRATION_MS / 1000;
+		assertTrue(published("alice").getExpiresAt() <= latest);
+	}
+
+	@Test
+	void testSkipsExpiredAndMalformedTokens() {
+		JwtSigningKeys keys = new JwtSigningKeys(EXPIRATION_MS);
+		when(replicaKeys.publicKey(keys.current().kid())).thenReturn(keys.current().publicKey());
+		publisher.revoke(jwtUtils(keys, -60_000).generateTokenWithRoles("alice", List.of("ROLE_USER"), false));
+		publisher.revoke("not-a-jwt");
+		publisher.revoke("a.b.c");
+		publisher.revoke(null);
+
+		verify(kafkaTemplate, never()).send(anyString(), any(), any());
+	}
+
+	private TokenRevokedEvent published(String subject) {
+		ArgumentCaptor<TokenRevokedEvent> event = ArgumentCaptor.forClass(TokenRevokedEvent.class);
+		verify(kafkaTemplate).send(eq("revocations"), eq(subject), event.capture());
+		return event.getValue();
+	}
+
+	private static JwtUtils jwtUtils(JwtSigningKeys keys, int expirationMs) {
+		JwtUtils jwtUtils = new JwtUtils(keys);
+		ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", expirationMs);
+		return jwtUtils;
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.authservice.security.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.authservice.models.ERole;
+import com.example.authservice.models.Role;
+import com.example.authservice.models.User;
+import com.example.authservice.payload.response.UserImportResponse;
+import com.example.authservice.repository.RoleRepository;
+import com.example.authservice.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportServiceTest {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+
+	private UserImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		roleRepository.save(new Role(ERole.ROLE_USER));
+		roleRepository.save(new Role(ERole.ROLE_ADMIN));
+		userRepository.save(new User("existing", "existing@example.com", "hash"));
+
+		importService = new UserImportService(userRepository, new RoleCache(roleRepository), encoder, jdbcTemplate,
+				new TransactionTemplate(transactionManager),
+				Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), 2, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		importService.destroy();
+		jdbcTemplate.update("delete from user_roles");
+		userRepository.deleteAll();
+		roleRepository.deleteAll();
+	}
+
+	@Test
+	void testImportsNdjsonAndReportsBadRowsWithoutAborting() throws Exception {
+		String body = String.join("\n",
+				"{\"username\":\"alice\",\"email\":\"alice@example.com\",\"password\":\"secret1\",\"roles\":[\"admin\"]}",
+				"{\"username\":\"bob\",\"email\":\"bob@example.com\",\"password\":\"secret2\"}",
+				"not json",
+				"{\"username\":\"existing\",\"email\":\"other@example.com\",\"password\":\"secret3\"}",
+				"",
+				"{\"username\":\"carol\",\"email\":\"alice@example.com\",\"password\":\"secret4\"}",
+				"{\"username\":\"dave\",\"email\":\"dave@example.com\",\"password\":\"123\"}",
+				"{\"username\":\"erin\",\"email\":\"erin@example.com\",\"password\":\"secret5\"}");
+
+		UserImportResponse result = importService.importNdjson(new BufferedReader(new StringReader(body)));
+
+		assertEquals(3, result.getImported());
+		assertEquals(List.of(3L, 4L, 6L, 7L),
+				result.getErrors().stream().map(UserImportResponse.RowError::line).toList());
+		assertEquals("Error: Username already taken", result.getErrors().get(1).message());
+		assertEquals("Error: Email already in use", result.getErrors().get(2).message());
+		assertEquals("password size must be between 6 and 40", result.getErrors().get(3).message());
+
+		User alice = userRepository.findWithRolesByUsername("alice").orElseThrow();
+		assertTrue(encoder.matches("secret1", alice.getPassword()));
+		assertEquals(Set.of(ERole.ROLE_ADMIN), roleNames(alice));
+		assertEquals(Set.of(ERole.ROLE_USER), roleNames(userRepository.findWithRolesByUsername("erin").orElseThrow()));
+	}
+
+	@Test
+	void testImportsCsvWithQuotedFields() throws Exception {
+		String body = String.join("\n",
+				"email,username,password,roles",
+				"frank@example.com,frank,\"pa,ss\"\"word\",user|admin",
+				"grace@example.com,grace,secret6,");
+
+		UserImportResponse result = importService.importCsv(new BufferedReader(new StringReader(body)));
+
+		assertEquals(2, result.getImported());
+		assertEquals(0, result.getFailed());
+		User frank = userRepository.findWithRolesByUsername("frank").orElseThrow();
+		assertTrue(encoder.matches("pa,ss\"word", frank.getPassword()));
+		assertEquals(Set.of(ERole.ROLE_USER, ERole.ROLE_ADMIN), roleNames(frank));
+	}
+
+	private static Set<ERole> roleNames(User user) {
+		return user.getRoles().stream().map(Role::getName).collect(Collectors.toSet());
+	}
+}
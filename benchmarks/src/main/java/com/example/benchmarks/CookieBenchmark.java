@@ -0,0 +1,60 @@
+package com.example.benchmarks;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.identity.TokenCookies;
+
+/**
+ * Building the {@code Set-Cookie} values signin returns with
+ * {@link TokenCookies}, as {@code JwtUtils.generateJwtCookie} and
+ * {@code generateRefreshCookie} do, without the token minting, which
+ * {@link JwtSigningBenchmark} covers.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar CookieBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CookieBenchmark {
+
+	private static final Duration ACCESS_LIFETIME = Duration.ofSeconds(120);
+	private static final Duration REFRESH_LIFETIME = Duration.ofDays(7);
+
+	private String jwt;
+	private String refreshToken;
+
+	@Setup
+	public void setUp() {
+		// an ES256 token with the usual claims is about 450 characters
+		jwt = "eyJ" + "x".repeat(450);
+		refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[32]);
+	}
+
+	@Benchmark
+	public String jwtCookie() {
+		return TokenCookies.of("sabiCookie", jwt, ACCESS_LIFETIME).toString();
+	}
+
+	@Benchmark
+	public String refreshCookie() {
+		return TokenCookies.of("sabiRefresh", refreshToken, REFRESH_LIFETIME, "/auth-service/api/auth").toString();
+	}
+}
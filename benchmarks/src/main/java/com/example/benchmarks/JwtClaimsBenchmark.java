@@ -0,0 +1,103 @@
+package com.example.benchmarks;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.identity.TokenClaims;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Cost of reading the roles claim with {@link TokenClaims#rolesOf}, which
+ * the gateway and auth-service both call: the array path used for tokens
+ * auth-service issues now, and the string fallback for older tokens.
+ * {@code parseAndExtract} adds what the gateway does before it, an ES256
+ * check with the key picked by {@code kid}, to put the claim handling in
+ * proportion.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar JwtClaimsBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtClaimsBenchmark {
+
+	private static final String KID = "bench";
+	private static final List<String> ROLES = List.of("ROLE_USER", "ROLE_ADMIN");
+
+	private JwtParser parser;
+	private String token;
+	private Claims claims;
+	private Map<String, Object> legacyClaims;
+
+	@Setup
+	public void setUp() {
+		KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+		// as the gateway's JwtUtil, with its JWKS reduced to one key
+		parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+			@Override
+			public Key resolveSigningKey(JwsHeader header, Claims claims) {
+				if (!KID.equals(header.getKeyId())) {
+					throw new UnsupportedJwtException("Unknown signing key: " + header.getKeyId());
+				}
+				return keyPair.getPublic();
+			}
+		}).build();
+		token = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, KID)
+				.setId(UUID.randomUUID().toString())
+				.setSubject("alice")
+				.claim(TokenClaims.USER_ID, 42L)
+				.claim(TokenClaims.EMAIL, "alice@example.com")
+				.claim(TokenClaims.FORCE_PASSWORD_CHANGE, false)
+				.claim(TokenClaims.ROLES, ROLES)
+				.setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+				.signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+				.compact();
+		claims = parser.parseClaimsJws(token).getBody();
+		legacyClaims = Map.of(TokenClaims.ROLES, ROLES.toString());
+	}
+
+	@Benchmark
+	public List<String> rolesFromCollection() {
+		return TokenClaims.rolesOf(claims);
+	}
+
+	@Benchmark
+	public List<String> rolesFromString() {
+		return TokenClaims.rolesOf(legacyClaims);
+	}
+
+	@Benchmark
+	public List<String> parseAndExtract() {
+		return TokenClaims.rolesOf(parser.parseClaimsJws(token).getBody());
+	}
+}
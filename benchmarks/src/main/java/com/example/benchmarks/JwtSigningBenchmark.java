@@ -0,0 +1,93 @@
+package com.example.benchmarks;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.identity.TokenClaims;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Sign and verify throughput of the token auth-service issues
+ * ({@code JwtUtils.generateTokenForUser} / {@code validateJwtToken}), for the
+ * old shared-secret HS256 path and the ES256 path. Parsers are built once,
+ * as in the services.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar JwtSigningBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+	@Param({ "HS256", "ES256" })
+	public String algorithm;
+
+	private SignatureAlgorithm signatureAlgorithm;
+	private Key signingKey;
+	private JwtParser parser;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+		if (signatureAlgorithm.isHmac()) {
+			SecretKey secret = Keys.secretKeyFor(signatureAlgorithm);
+			signingKey = secret;
+			parser = Jwts.parserBuilder().setSigningKey(secret).build();
+		} else {
+			var keyPair = Keys.keyPairFor(signatureAlgorithm);
+			signingKey = keyPair.getPrivate();
+			parser = Jwts.parserBuilder().setSigningKey(keyPair.getPublic()).build();
+		}
+		token = sign();
+	}
+
+	@Benchmark
+	public String sign() {
+		return Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, "bench")
+				.setId(UUID.randomUUID().toString())
+				.setSubject("alice")
+				.claim(TokenClaims.USER_ID, 42L)
+				.claim(TokenClaims.EMAIL, "alice@example.com")
+				.claim(TokenClaims.FORCE_PASSWORD_CHANGE, false)
+				.claim(TokenClaims.ROLES, List.of("ROLE_USER"))
+				.setIssuedAt(new Date())
+				.setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+				.signWith(signingKey, signatureAlgorithm)
+				.compact();
+	}
+
+	@Benchmark
+	public Claims verify() {
+		return parser.parseClaimsJws(token).getBody();
+	}
+}
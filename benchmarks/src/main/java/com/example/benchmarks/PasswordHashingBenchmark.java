@@ -0,0 +1,65 @@
+package com.example.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Per-hash cost of the encoders auth-service can be configured with
+ * ({@code bezkoder.app.password.algorithm}), to pick a strength for a latency
+ * budget. {@code matches} is what every signin pays.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar PasswordHashingBenchmark -p encoder=bcrypt-10,argon2-19456
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+	@Param({ "bcrypt-10", "bcrypt-12", "argon2-19456" })
+	public String encoder;
+
+	private PasswordEncoder passwordEncoder;
+	private String hash;
+
+	@Setup
+	public void setUp() {
+		String[] spec = encoder.split("-");
+		int cost = Integer.parseInt(spec[1]);
+		passwordEncoder = switch (spec[0]) {
+			case "bcrypt" -> new BCryptPasswordEncoder(cost);
+			// memory in KiB, as bezkoder.app.password.argon2MemoryKiB
+			case "argon2" -> new Argon2PasswordEncoder(16, 32, 1, cost, 2);
+			default -> throw new IllegalArgumentException(encoder);
+		};
+		hash = passwordEncoder.encode("correct horse battery");
+	}
+
+	@Benchmark
+	public String encode() {
+		return passwordEncoder.encode("correct horse battery");
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return passwordEncoder.matches("correct horse battery", hash);
+	}
+}
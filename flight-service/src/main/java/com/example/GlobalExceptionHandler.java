@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatConflictException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -37,4 +38,18 @@ public class GlobalExceptionHandler {
 		resp.put("message", ex.getMessage());
 		return new ResponseEntity<>(resp, HttpStatus.NOT_FOUND);
 	}
+
+	@ExceptionHandler(SeatConflictException.class)
+	public ResponseEntity<Map<String, String>> handleSeatConflict(SeatConflictException ex) {
+		Map<String, String> resp = new HashMap<>();
+		resp.put("message", ex.getMessage());
+		return new ResponseEntity<>(resp, HttpStatus.CONFLICT);
+	}
+
+	@ExceptionHandler(IllegalArgumentException.class)
+	public ResponseEntity<Map<String, String>> handleBadArgument(IllegalArgumentException ex) {
+		Map<String, String> resp = new HashMap<>();
+		resp.put("message", ex.getMessage());
+		return new ResponseEntity<>(resp, HttpStatus.BAD_REQUEST);
+	}
 }
@@ -2,6 +2,7 @@ package com.example.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,9 +15,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.exception.ResourceNotFoundException;
+import com.example.hold.SeatHoldService;
 import com.example.model.Flight;
+import com.example.model.SeatHold;
 import com.example.request.FlightRequest;
 import com.example.request.SearchRequest;
+import com.example.request.SeatRequest;
 import com.example.service.FlightService;
 
 import jakarta.validation.Valid;
@@ -26,9 +30,11 @@ import jakarta.validation.Valid;
 class FlightController {
 
 	private final FlightService flightService;
+	private final SeatHoldService seatHoldService;
 
-	public FlightController(FlightService flightService) {
+	public FlightController(FlightService flightService, SeatHoldService seatHoldService) {
 		this.flightService = flightService;
+		this.seatHoldService = seatHoldService;
 	}
 
 	@PostMapping("register")
@@ -72,4 +78,40 @@ class FlightController {
 		return ResponseEntity.ok().build();
 	}
 
+	@PutMapping("/flights/reserve")
+	public ResponseEntity<Void> reserveSeats(@RequestBody List<SeatRequest> requests) {
+		flightService.reserveSeats(requests);
+		return ResponseEntity.ok().build();
+	}
+
+	@PutMapping("/flights/release")
+	public ResponseEntity<Void> releaseSeats(@RequestBody List<SeatRequest> requests) {
+		flightService.releaseSeats(requests);
+		return ResponseEntity.ok().build();
+	}
+
+	@PostMapping("/flights/{flightId}/holds")
+	public ResponseEntity<SeatHold> holdSeats(@PathVariable int flightId, @RequestParam int seats) {
+		return ResponseEntity.status(HttpStatus.CREATED).body(seatHoldService.hold(flightId, seats));
+	}
+
+	@PutMapping("/holds/{holdId}/confirm")
+	public ResponseEntity<Void> confirmHold(@PathVariable String holdId) {
+		seatHoldService.confirm(holdId);
+		return ResponseEntity.ok().build();
+	}
+
+	@DeleteMapping("/holds/{holdId}")
+	public ResponseEntity<Void> releaseHold(@PathVariable String holdId) {
+		seatHoldService.release(holdId);
+		return ResponseEntity.ok().build();
+	}
+
+	// also undoes a confirm, for a caller whose confirm may have gone through
+	@PutMapping("/holds/{holdId}/cancel")
+	public ResponseEntity<Void> cancelHold(@PathVariable String holdId) {
+		seatHoldService.cancel(holdId);
+		return ResponseEntity.ok().build();
+	}
+
 }
@@ -0,0 +1,27 @@
+package com.example.event;
+
+public class FlightChangedEvent {
+
+	public enum ChangeType {
+		CREATED, DELETED, SEATS_CHANGED
+	}
+
+	private int flightId;
+	private ChangeType changeType;
+
+	public FlightChangedEvent() {
+	}
+
+	public FlightChangedEvent(int flightId, ChangeType changeType) {
+		this.flightId = flightId;
+		this.changeType = changeType;
+	}
+
+	public int getFlightId() {
+		return flightId;
+	}
+
+	public ChangeType getChangeType() {
+		return changeType;
+	}
+}
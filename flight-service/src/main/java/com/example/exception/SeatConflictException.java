@@ -0,0 +1,11 @@
+package com.example.exception;
+
+/**
+ * A seat reservation or release that the flight's current availability does
+ * not allow. Mapped to 409.
+ */
+public class SeatConflictException extends RuntimeException {
+	public SeatConflictException(String msg) {
+		super(msg);
+	}
+}
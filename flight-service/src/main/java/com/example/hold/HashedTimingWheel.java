@@ -0,0 +1,206 @@
+package com.example.hold;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel (Varghese and Lauck): a ring of buckets, one per
+ * tick, each holding the timeouts due when the hand reaches it, with a
+ * round count for deadlines more than one revolution away. Scheduling and
+ * cancelling are O(1) and lock-free for the caller: both are queued and
+ * applied by the single worker thread, which also fires expirations.
+ * Deadlines are accurate to one tick.
+ *
+ * Expired tasks of a tick are handed to {@code onExpired} together, on the
+ * worker thread, so it should only hand them off.
+ */
+class HashedTimingWheel<T> implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+	private static final int PENDING = 0;
+	private static final int CANCELLED = 1;
+	private static final int EXPIRED = 2;
+
+	static final class Timeout<T> {
+		private final HashedTimingWheel<T> owner;
+		private final T task;
+		private final long deadlineTick;
+		private final AtomicInteger state = new AtomicInteger(PENDING);
+		private long rounds;
+		private Bucket<T> bucket;
+		private Timeout<T> prev;
+		private Timeout<T> next;
+
+		private Timeout(HashedTimingWheel<T> owner, T task, long deadlineTick) {
+			this.owner = owner;
+			this.task = task;
+			this.deadlineTick = deadlineTick;
+		}
+
+		T task() {
+			return task;
+		}
+
+		/**
+		 * @return false if the timeout already expired or was cancelled
+		 */
+		boolean cancel() {
+			if (!state.compareAndSet(PENDING, CANCELLED)) {
+				return false;
+			}
+			owner.cancellations.add(this);
+			return true;
+		}
+	}
+
+	private static final class Bucket<T> {
+		private Timeout<T> head;
+		private Timeout<T> tail;
+
+		void add(Timeout<T> timeout) {
+			timeout.bucket = this;
+			timeout.prev = tail;
+			if (tail == null) {
+				head = timeout;
+			} else {
+				tail.next = timeout;
+			}
+			tail = timeout;
+		}
+
+		void remove(Timeout<T> timeout) {
+			if (timeout.prev == null) {
+				head = timeout.next;
+			} else {
+				timeout.prev.next = timeout.next;
+			}
+			if (timeout.next == null) {
+				tail = timeout.prev;
+			} else {
+				timeout.next.prev = timeout.prev;
+			}
+			timeout.bucket = null;
+			timeout.prev = null;
+			timeout.next = null;
+		}
+
+		void expire(List<T> expired) {
+			Timeout<T> timeout = head;
+			while (timeout != null) {
+				Timeout<T> next = timeout.next;
+				if (timeout.rounds <= 0) {
+					remove(timeout);
+					if (timeout.state.compareAndSet(PENDING, EXPIRED)) {
+						expired.add(timeout.task);
+					}
+				} else {
+					timeout.rounds--;
+				}
+				timeout = next;
+			}
+		}
+	}
+
+	private final Bucket<T>[] wheel;
+	private final int mask;
+	private final long tickNanos;
+	private final long startNanos;
+	private final Consumer<List<T>> onExpired;
+	private final Queue<Timeout<T>> additions = new ConcurrentLinkedQueue<>();
+	private final Queue<Timeout<T>> cancellations = new ConcurrentLinkedQueue<>();
+	private final Thread worker;
+	private volatile boolean running = true;
+	private long tick;
+
+	/**
+	 * @param wheelSize rounded up to a power of two
+	 */
+	@SuppressWarnings("unchecked")
+	HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize, Consumer<List<T>> onExpired) {
+		if (tickDuration <= 0 || wheelSize <= 0) {
+			throw new IllegalArgumentException("tick duration and wheel size must be positive");
+		}
+		int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+		this.wheel = new Bucket[size];
+		for (int i = 0; i < size; i++) {
+			wheel[i] = new Bucket<>();
+		}
+		this.mask = size - 1;
+		this.tickNanos = unit.toNanos(tickDuration);
+		this.onExpired = onExpired;
+		this.startNanos = System.nanoTime();
+		this.worker = new Thread(this::run, name);
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	Timeout<T> schedule(T task, long delay, TimeUnit unit) {
+		if (!running) {
+			throw new IllegalStateException("Timing wheel is stopped");
+		}
+		long due = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+		Timeout<T> timeout = new Timeout<>(this, task, (due + tickNanos - 1) / tickNanos);
+		additions.add(timeout);
+		return timeout;
+	}
+
+	@Override
+	public void close() {
+		running = false;
+		worker.interrupt();
+	}
+
+	private void run() {
+		while (running) {
+			long sleepNanos = startNanos + (tick + 1) * tickNanos - System.nanoTime();
+			if (sleepNanos > 0) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(sleepNanos);
+				} catch (InterruptedException stopped) {
+					continue;
+				}
+			}
+			tick++;
+			applyCancellations();
+			applyAdditions();
+			List<T> expired = new ArrayList<>();
+			wheel[(int) (tick & mask)].expire(expired);
+			if (!expired.isEmpty()) {
+				try {
+					onExpired.accept(expired);
+				} catch (RuntimeException ex) {
+					logger.error("Timing wheel callback failed for {} timeouts: {}", expired.size(), ex.getMessage());
+				}
+			}
+		}
+	}
+
+	private void applyCancellations() {
+		for (Timeout<T> timeout; (timeout = cancellations.poll()) != null;) {
+			if (timeout.bucket != null) {
+				timeout.bucket.remove(timeout);
+			}
+		}
+	}
+
+	private void applyAdditions() {
+		for (Timeout<T> timeout; (timeout = additions.poll()) != null;) {
+			if (timeout.state.get() != PENDING) {
+				continue;
+			}
+			// overdue timeouts go into the current bucket and fire this tick
+			long ticks = Math.max(timeout.deadlineTick, tick);
+			timeout.rounds = (ticks - tick) / wheel.length;
+			wheel[(int) (ticks & mask)].add(timeout);
+		}
+	}
+}
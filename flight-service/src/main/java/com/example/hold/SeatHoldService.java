@@ -0,0 +1,280 @@
+package com.example.hold;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.event.FlightChangedEvent;
+import com.example.event.FlightChangedEvent.ChangeType;
+import com.example.exception.ResourceNotFoundException;
+import com.example.inventory.SeatReserver;
+import com.example.model.SeatHold;
+import com.example.repository.SeatHoldRepository;
+
+/**
+ * Seat holds: {@link #hold} takes seats for {@code flight.hold.ttl-seconds}
+ * and returns a hold id that {@link #confirm} turns into a sale and
+ * {@link #release} gives back. {@link #cancel} gives back a confirmed hold
+ * too, for a caller that cannot tell whether its confirm went through. Holds nobody resolves in time are returned
+ * to the flight by a {@link HashedTimingWheel}, so expiry costs O(1) per
+ * hold and no table scans.
+ *
+ * Holds are rows in {@code seat_hold}; a resolution is a conditional delete
+ * (release, expiry) or update (confirm) of that row, so confirm, release and
+ * expiry racing on one hold (even on different nodes) have exactly one
+ * winner. On startup every
+ * outstanding hold is put back on the wheel. A hold is only on the wheel of
+ * the node that took it, so every node also sweeps the table every
+ * {@code flight.hold.sweep-ms} for holds more than
+ * {@code flight.hold.sweep-grace-seconds} overdue, which a dead node left
+ * behind, and drops confirmed holds past their retention.
+ *
+ * With the database inventory a hold's seats are taken in the transaction
+ * that saves its row, so neither exists without the other. The in-memory
+ * inventory cannot take part in a transaction: seats are taken first and
+ * given back if the row cannot be saved, which a crash in between skips,
+ * and given back on release or expiry only once the row's delete committed.
+ */
+@Service
+public class SeatHoldService implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(SeatHoldService.class);
+
+	private static final int EXPIRY_CHUNK = 500;
+	private static final Duration EXPIRY_RETRY = Duration.ofSeconds(5);
+
+	private record Pending(String holdId, int flightId, int seats, Instant expiresAt) {
+
+		static Pending of(SeatHold hold) {
+			return new Pending(hold.getHoldId(), hold.getFlightId(), hold.getSeats(), hold.getExpiresAt());
+		}
+	}
+
+	private final SeatHoldRepository holdRepository;
+	private final SeatReserver seatReserver;
+	private final TransactionTemplate transactionTemplate;
+	private final Duration ttl;
+	private final Duration sweepGrace;
+	private final Duration confirmedRetention;
+	private final Map<String, HashedTimingWheel.Timeout<Pending>> timeouts = new ConcurrentHashMap<>();
+	private final ExecutorService expirer;
+	private final HashedTimingWheel<Pending> wheel;
+
+	public SeatHoldService(SeatHoldRepository holdRepository, SeatReserver seatReserver,
+			TransactionTemplate transactionTemplate,
+			@Value("${flight.hold.ttl-seconds:600}") long ttlSeconds,
+			@Value("${flight.hold.tick-ms:100}") long tickMs,
+			@Value("${flight.hold.wheel-size:4096}") int wheelSize,
+			@Value("${flight.hold.sweep-grace-seconds:60}") long sweepGraceSeconds,
+			@Value("${flight.hold.confirmed-retention-hours:24}") long confirmedRetentionHours) {
+		this.holdRepository = holdRepository;
+		this.seatReserver = seatReserver;
+		this.transactionTemplate = transactionTemplate;
+		this.ttl = Duration.ofSeconds(ttlSeconds);
+		this.sweepGrace = Duration.ofSeconds(sweepGraceSeconds);
+		this.confirmedRetention = Duration.ofHours(confirmedRetentionHours);
+		this.expirer = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task, "seat-hold-expiry");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.wheel = new HashedTimingWheel<>("seat-hold-wheel", tickMs, TimeUnit.MILLISECONDS, wheelSize,
+				due -> expirer.execute(() -> expire(due)));
+	}
+
+	public SeatHold hold(int flightId, int seats) {
+		SeatHold hold = SeatHold.builder().holdId(UUID.randomUUID().toString()).flightId(flightId).seats(seats)
+				.expiresAt(Instant.now().plus(ttl)).build();
+		if (seatReserver.joinsTransactions()) {
+			transactionTemplate.executeWithoutResult(status -> {
+				seatReserver.reserve(flightId, seats);
+				holdRepository.save(hold);
+			});
+		} else {
+			seatReserver.reserve(flightId, seats);
+			try {
+				holdRepository.save(hold);
+			} catch (RuntimeException ex) {
+				seatReserver.release(flightId, seats);
+				throw ex;
+			}
+		}
+		track(Pending.of(hold));
+		return hold;
+	}
+
+	/**
+	 * Idempotent: confirming a confirmed hold succeeds again.
+	 *
+	 * @throws ResourceNotFoundException if the hold does not exist, was
+	 *                                   released or has expired
+	 */
+	public void confirm(String holdId) {
+		Boolean confirmed = transactionTemplate.execute(status -> holdRepository.confirmLive(holdId, Instant.now()) == 1
+				|| holdRepository.existsByHoldIdAndConfirmedTrue(holdId));
+		if (!Boolean.TRUE.equals(confirmed)) {
+			throw new ResourceNotFoundException("hold not found or expired");
+		}
+		untrack(holdId);
+	}
+
+	/**
+	 * @throws ResourceNotFoundException if the hold does not exist or was
+	 *                                   already resolved
+	 */
+	public void release(String holdId) {
+		remove(holdId, false);
+	}
+
+	/**
+	 * Gives the hold's seats back whether or not it was confirmed.
+	 *
+	 * @throws ResourceNotFoundException if the hold does not exist or was
+	 *                                   already released or expired
+	 */
+	public void cancel(String holdId) {
+		remove(holdId, true);
+	}
+
+	private void remove(String holdId, boolean confirmedToo) {
+		SeatHold hold = transactionTemplate.execute(status -> {
+			SeatHold found = holdRepository.findById(holdId)
+					.orElseThrow(() -> new ResourceNotFoundException("hold not found or expired"));
+			int deleted = confirmedToo ? holdRepository.deleteAnyHold(holdId) : holdRepository.deleteHold(holdId);
+			if (deleted == 0) {
+				throw new ResourceNotFoundException("hold not found or expired");
+			}
+			if (seatReserver.joinsTransactions()) {
+				seatReserver.release(found.getFlightId(), found.getSeats());
+			}
+			return found;
+		});
+		if (!seatReserver.joinsTransactions()) {
+			seatReserver.release(hold.getFlightId(), hold.getSeats());
+		}
+		untrack(holdId);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void trackOutstanding() {
+		AtomicLong count = new AtomicLong();
+		transactionTemplate.executeWithoutResult(status -> {
+			try (Stream<SeatHold> holds = holdRepository.streamOutstanding()) {
+				holds.forEach(hold -> {
+					track(Pending.of(hold));
+					count.incrementAndGet();
+				});
+			}
+		});
+		if (count.get() > 0) {
+			logger.info("Tracking {} outstanding seat holds", count.get());
+		}
+	}
+
+	@Scheduled(initialDelayString = "${flight.hold.sweep-ms:60000}", fixedDelayString = "${flight.hold.sweep-ms:60000}")
+	public void sweepOverdue() {
+		Instant now = Instant.now();
+		Instant cutoff = now.minus(sweepGrace);
+		try {
+			transactionTemplate.executeWithoutResult(
+					status -> holdRepository.deleteConfirmed(now.minus(confirmedRetention)));
+			List<Pending> overdue;
+			do {
+				overdue = holdRepository.findExpired(cutoff, PageRequest.of(0, EXPIRY_CHUNK)).stream()
+						.map(Pending::of).toList();
+				if (!overdue.isEmpty()) {
+					logger.warn("Expiring {} seat holds overdue by more than {}s", overdue.size(),
+							sweepGrace.toSeconds());
+					expireChunk(overdue);
+				}
+			} while (overdue.size() == EXPIRY_CHUNK);
+		} catch (RuntimeException ex) {
+			logger.error("Sweeping overdue seat holds failed: {}", ex.getMessage());
+		}
+	}
+
+	// holds of a deleted flight have nothing left to go back to
+	@EventListener
+	public void onFlightChanged(FlightChangedEvent event) {
+		if (event.getChangeType() == ChangeType.DELETED) {
+			transactionTemplate.executeWithoutResult(status -> holdRepository.deleteByFlightId(event.getFlightId()));
+		}
+	}
+
+	@Override
+	public void destroy() {
+		wheel.close();
+		expirer.shutdown();
+	}
+
+	private void track(Pending hold) {
+		long delayMs = Math.max(0, Duration.between(Instant.now(), hold.expiresAt()).toMillis());
+		timeouts.put(hold.holdId(), wheel.schedule(hold, delayMs, TimeUnit.MILLISECONDS));
+	}
+
+	private void untrack(String holdId) {
+		HashedTimingWheel.Timeout<Pending> timeout = timeouts.remove(holdId);
+		if (timeout != null) {
+			timeout.cancel();
+		}
+	}
+
+	private void expire(List<Pending> due) {
+		for (int from = 0; from < due.size(); from += EXPIRY_CHUNK) {
+			List<Pending> chunk = due.subList(from, Math.min(due.size(), from + EXPIRY_CHUNK));
+			chunk.forEach(hold -> timeouts.remove(hold.holdId()));
+			try {
+				expireChunk(chunk);
+			} catch (RuntimeException ex) {
+				logger.error("Expiring {} seat holds failed, retrying in {}s: {}", chunk.size(),
+						EXPIRY_RETRY.toSeconds(), ex.getMessage());
+				chunk.forEach(hold -> timeouts.put(hold.holdId(),
+						wheel.schedule(hold, EXPIRY_RETRY.toMillis(), TimeUnit.MILLISECONDS)));
+			}
+		}
+	}
+
+	private void expireChunk(List<Pending> chunk) {
+		Instant now = Instant.now();
+		Map<Integer, Integer> released = transactionTemplate.execute(status -> {
+			// flight-id order, so concurrent expirers never lock rows in opposite orders
+			Map<Integer, Integer> deleted = new TreeMap<>();
+			for (Pending hold : chunk) {
+				if (holdRepository.deleteExpired(hold.holdId(), now) == 1) {
+					deleted.merge(hold.flightId(), hold.seats(), Integer::sum);
+				}
+			}
+			if (seatReserver.joinsTransactions()) {
+				deleted.forEach(seatReserver::release);
+			}
+			return deleted;
+		});
+		// only seats whose hold rows are gone for good; a retry after a failed
+		// commit finds the rows again and must not have released them already
+		if (!seatReserver.joinsTransactions()) {
+			released.forEach(seatReserver::release);
+		}
+		// the wheel runs on the monotonic clock, expiresAt on the wall clock
+		chunk.stream().filter(hold -> hold.expiresAt().isAfter(now)).forEach(this::track);
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.inventory;
+
+import java.util.SortedMap;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.event.FlightChangedEvent;
+import com.example.event.FlightChangedEvent.ChangeType;
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatConflictException;
+import com.example.repository.FlightRepository;
+
+/**
+ * Reserves and releases with one conditional UPDATE of the flight row.
+ * Reservations arriving within {@code flight.inventory.batch-window-us} of
+ * each other for the same flight share one transaction and one UPDATE
+ * ({@link ReservationBatcher}); a window of 0 sends each on its own.
+ * Called inside a transaction, every operation joins it instead, so it
+ * commits or rolls back with the caller's own writes.
+ */
+@Service
+@ConditionalOnProperty(name = "flight.inventory.mode", havingValue = "database", matchIfMissing = true)
+public class DatabaseSeatReserver implements SeatReserver, DisposableBean {
+
+	private final FlightRepository flightRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+	private final ReservationBatcher batcher;
+
+	public DatabaseSeatReserver(FlightRepository flightRepository, ApplicationEventPublisher eventPublisher,
+			TransactionTemplate transactionTemplate,
+			@Value("${flight.inventory.batch-window-us:1000}") long batchWindowMicros,
+			@Value("${flight.inventory.batch-threads:8}") int batchThreads) {
+		this.flightRepository = flightRepository;
+		this.eventPublisher = eventPublisher;
+		this.transactionTemplate = transactionTemplate;
+		this.batcher = batchWindowMicros > 0
+				? new ReservationBatcher(flightRepository, transactionTemplate, eventPublisher, batchWindowMicros,
+						batchThreads)
+				: null;
+	}
+
+	@Override
+	public void reserve(int flightId, int seats) {
+		SeatReserver.requirePositive(seats);
+		// a batch commits on its own, which a caller's transaction cannot wait for
+		if (batcher != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+			batcher.reserve(flightId, seats);
+			return;
+		}
+		transactionTemplate.executeWithoutResult(status -> {
+			if (flightRepository.reserveSeats(flightId, seats) == 0) {
+				throw seatConflict(flightId, "Not enough seats available");
+			}
+			eventPublisher.publishEvent(new FlightChangedEvent(flightId, ChangeType.SEATS_CHANGED));
+		});
+	}
+
+	@Override
+	@Transactional
+	public void release(int flightId, int seats) {
+		SeatReserver.requirePositive(seats);
+		if (flightRepository.releaseSeats(flightId, seats) == 0) {
+			throw seatConflict(flightId, "Cannot release more seats than the flight has");
+		}
+		eventPublisher.publishEvent(new FlightChangedEvent(flightId, ChangeType.SEATS_CHANGED));
+	}
+
+	/**
+	 * One transaction; rows are locked in flight-id order, so two batches
+	 * sharing flights can never deadlock, and any flight that cannot be
+	 * served rolls back the rest.
+	 */
+	@Override
+	@Transactional
+	public void reserveAll(SortedMap<Integer, Integer> seatsByFlight) {
+		seatsByFlight.forEach((flightId, seats) -> {
+			SeatReserver.requirePositive(seats);
+			if (flightRepository.reserveSeats(flightId, seats) == 0) {
+				throw seatConflict(flightId, "Not enough seats available on flight " + flightId);
+			}
+		});
+		seatsByFlight.keySet().forEach(flightId -> eventPublisher
+				.publishEvent(new FlightChangedEvent(flightId, ChangeType.SEATS_CHANGED)));
+	}
+
+	@Override
+	@Transactional
+	public void releaseAll(SortedMap<Integer, Integer> seatsByFlight) {
+		seatsByFlight.forEach((flightId, seats) -> {
+			SeatReserver.requirePositive(seats);
+			if (flightRepository.releaseSeats(flightId, seats) == 0) {
+				throw seatConflict(flightId, "Cannot release more seats than flight " + flightId + " has");
+			}
+		});
+		seatsByFlight.keySet().forEach(flightId -> eventPublisher
+				.publishEvent(new FlightChangedEvent(flightId, ChangeType.SEATS_CHANGED)));
+	}
+
+	@Override
+	public boolean joinsTransactions() {
+		return true;
+	}
+
+	@Override
+	public void evict(int flightId) {
+		if (batcher != null) {
+			batcher.evict(flightId);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (batcher != null) {
+			batcher.close();
+		}
+	}
+
+	// only reached when the update matched no row, to tell the two causes apart
+	private RuntimeException seatConflict(int flightId, String message) {
+		if (!flightRepository.existsById(flightId)) {
+			return new ResourceNotFoundException("flight by this id not found");
+		}
+		return new SeatConflictException(message);
+	}
+}
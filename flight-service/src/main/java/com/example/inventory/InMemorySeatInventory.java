@@ -0,0 +1,214 @@
+package com.example.inventory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.event.FlightChangedEvent;
+import com.example.event.FlightChangedEvent.ChangeType;
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatConflictException;
+import com.example.model.SeatJournalCheckpoint;
+import com.example.repository.FlightRepository;
+import com.example.repository.SeatJournalCheckpointRepository;
+
+/**
+ * Seat availability held in memory, one atomic counter per flight, loaded
+ * from the flight table on first use. Reserve and release are a CAS on the
+ * counter plus a journal append; the call returns once the journal record
+ * is on disk ({@link SeatJournal} group-commits, so concurrent callers share
+ * an fsync). Every {@code flight.inventory.flush-ms} the accumulated deltas
+ * are written to {@code available_seats} in one batch, in flight-id order,
+ * and the gateway is told which flights changed.
+ *
+ * The node must be the only writer of the flights it serves: the counters
+ * are not re-read from the database, and by-id reads lag by up to one flush.
+ * A second node would oversell, so the inventory refuses to start unless
+ * {@code flight.inventory.owning-node} names this node's
+ * {@code flight.inventory.node-id}.
+ * On startup, journal segments not yet in the database are replayed.
+ */
+@Service
+@ConditionalOnProperty(name = "flight.inventory.mode", havingValue = "memory")
+public class InMemorySeatInventory implements SeatReserver, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(InMemorySeatInventory.class);
+
+	private static final String APPLY_DELTA = "update flight set available_seats = available_seats + ? where flight_id = ?";
+
+	private static final class SeatCounter {
+		final AtomicInteger available;
+		final int total;
+
+		SeatCounter(int available, int total) {
+			this.available = new AtomicInteger(available);
+			this.total = total;
+		}
+	}
+
+	private final FlightRepository flightRepository;
+	private final SeatJournalCheckpointRepository checkpointRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final String nodeId;
+	private final SeatJournal journal;
+	private final Map<Integer, SeatCounter> counters = new ConcurrentHashMap<>();
+
+	public InMemorySeatInventory(FlightRepository flightRepository,
+			SeatJournalCheckpointRepository checkpointRepository, JdbcTemplate jdbcTemplate,
+			TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+			@Value("${flight.inventory.journal-dir:data/seat-journal}") String journalDir,
+			@Value("${flight.inventory.node-id:${HOSTNAME:local}}") String nodeId,
+			@Value("${flight.inventory.owning-node:}") String owningNode) throws IOException {
+		if (!nodeId.equals(owningNode)) {
+			throw new IllegalStateException("flight.inventory.mode=memory needs a single writing node, but "
+					+ "flight.inventory.owning-node is '" + owningNode + "' and this node is '" + nodeId + "'");
+		}
+		this.flightRepository = flightRepository;
+		this.checkpointRepository = checkpointRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.eventPublisher = eventPublisher;
+		this.nodeId = nodeId;
+		this.journal = new SeatJournal(Path.of(journalDir), recover(Path.of(journalDir)) + 1);
+	}
+
+	@Override
+	public void reserve(int flightId, int seats) {
+		SeatReserver.requirePositive(seats);
+		SeatCounter counter = counter(flightId);
+		int current;
+		do {
+			current = counter.available.get();
+			if (current < seats) {
+				throw new SeatConflictException("Not enough seats available");
+			}
+		} while (!counter.available.compareAndSet(current, current - seats));
+		journal(flightId, counter, -seats);
+	}
+
+	@Override
+	public void release(int flightId, int seats) {
+		SeatReserver.requirePositive(seats);
+		SeatCounter counter = counter(flightId);
+		int current;
+		do {
+			current = counter.available.get();
+			if (current + seats > counter.total) {
+				throw new SeatConflictException("Cannot release more seats than the flight has");
+			}
+		} while (!counter.available.compareAndSet(current, current + seats));
+		journal(flightId, counter, seats);
+	}
+
+	@Override
+	public void evict(int flightId) {
+		counters.remove(flightId);
+	}
+
+	/**
+	 * Writes the deltas journaled since the last flush to the flight table.
+	 * On failure they are kept for the next flush.
+	 */
+	@Scheduled(fixedDelayString = "${flight.inventory.flush-ms:50}")
+	public synchronized void flush() {
+		SeatJournal.Checkpoint checkpoint;
+		try {
+			checkpoint = journal.checkpoint();
+		} catch (IOException ex) {
+			logger.error("Seat journal checkpoint failed: {}", ex.getMessage());
+			return;
+		}
+		if (checkpoint == null) {
+			return;
+		}
+
+		try {
+			apply(checkpoint.deltas(), checkpoint.lastSegment());
+		} catch (RuntimeException ex) {
+			journal.restore(checkpoint);
+			logger.error("Seat flush failed, retrying next time: {}", ex.getMessage());
+			return;
+		}
+		try {
+			journal.committed(checkpoint);
+		} catch (IOException ex) {
+			logger.warn("Could not delete flushed journal segments: {}", ex.getMessage());
+		}
+		checkpoint.deltas().keySet().forEach(flightId -> eventPublisher
+				.publishEvent(new FlightChangedEvent(flightId, ChangeType.SEATS_CHANGED)));
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		flush();
+		journal.close();
+	}
+
+	private SeatCounter counter(int flightId) {
+		SeatCounter counter = counters.get(flightId);
+		if (counter != null) {
+			return counter;
+		}
+		return counters.computeIfAbsent(flightId, id -> flightRepository.findById(id)
+				.map(flight -> new SeatCounter(flight.getAvailableSeats(), flight.getTotalSeats()))
+				.orElseThrow(() -> new ResourceNotFoundException("flight by this id not found")));
+	}
+
+	private void journal(int flightId, SeatCounter counter, int delta) {
+		try {
+			journal.append(flightId, delta).join();
+		} catch (IllegalStateException | CompletionException ex) {
+			// not durable, so not done: give the seats back
+			counter.available.addAndGet(-delta);
+			throw new IllegalStateException("Seat journal is unavailable", ex);
+		}
+	}
+
+	/**
+	 * @return the last segment the database has
+	 */
+	private long recover(Path journalDir) throws IOException {
+		long applied = checkpointRepository.findById(nodeId).map(SeatJournalCheckpoint::getLastSegment).orElse(0L);
+		SeatJournal.Recovery recovery = SeatJournal.recover(journalDir, applied);
+		if (recovery.lastSegment() > applied) {
+			apply(recovery.deltas(), recovery.lastSegment());
+			logger.info("Replayed seat journal up to segment {} for {} flights", recovery.lastSegment(),
+					recovery.deltas().size());
+		}
+		for (Path file : recovery.files()) {
+			Files.deleteIfExists(file);
+		}
+		return recovery.lastSegment();
+	}
+
+	private void apply(Map<Integer, Integer> deltas, long lastSegment) {
+		// flight-id order, so concurrent flushers never lock rows in opposite orders
+		List<Object[]> updates = deltas.entrySet().stream()
+				.filter(entry -> entry.getValue() != 0)
+				.sorted(Map.Entry.comparingByKey())
+				.map(entry -> new Object[] { entry.getValue(), entry.getKey() })
+				.toList();
+		transactionTemplate.executeWithoutResult(status -> {
+			jdbcTemplate.batchUpdate(APPLY_DELTA, updates);
+			checkpointRepository.save(new SeatJournalCheckpoint(nodeId, lastSegment));
+		});
+	}
+}
@@ -0,0 +1,149 @@
+package com.example.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.event.FlightChangedEvent;
+import com.example.event.FlightChangedEvent.ChangeType;
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatConflictException;
+import com.example.repository.FlightRepository;
+
+/**
+ * Combines reservations for the same flight that arrive within one window
+ * into a single transaction: the flight row is locked once, the requests
+ * are granted in arrival order while seats last (a request too large for
+ * what is left fails, smaller ones after it may still fit) and the total
+ * is taken with one conditional UPDATE. Each caller then gets its own
+ * outcome.
+ *
+ * At most one batch per flight is in the database at a time; requests
+ * arriving meanwhile form the next batch, so batches grow with load
+ * instead of queueing on the row lock.
+ */
+class ReservationBatcher implements AutoCloseable {
+
+	private record Request(int seats, CompletableFuture<Void> result) {
+	}
+
+	private static final class FlightQueue {
+		final Queue<Request> pending = new ConcurrentLinkedQueue<>();
+		final AtomicBoolean scheduled = new AtomicBoolean();
+	}
+
+	private final FlightRepository flightRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final long windowMicros;
+	private final ScheduledExecutorService executor;
+	private final Map<Integer, FlightQueue> queues = new ConcurrentHashMap<>();
+
+	ReservationBatcher(FlightRepository flightRepository, TransactionTemplate transactionTemplate,
+			ApplicationEventPublisher eventPublisher, long windowMicros, int threads) {
+		this.flightRepository = flightRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.eventPublisher = eventPublisher;
+		this.windowMicros = windowMicros;
+		AtomicInteger count = new AtomicInteger();
+		this.executor = Executors.newScheduledThreadPool(threads, task -> {
+			Thread thread = new Thread(task, "seat-batch-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Blocks until the batch holding this request has committed.
+	 */
+	void reserve(int flightId, int seats) {
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		FlightQueue queue = queues.computeIfAbsent(flightId, id -> new FlightQueue());
+		queue.pending.add(new Request(seats, result));
+		if (queue.scheduled.compareAndSet(false, true)) {
+			executor.schedule(() -> drain(flightId, queue), windowMicros, TimeUnit.MICROSECONDS);
+		}
+		try {
+			result.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+
+	void evict(int flightId) {
+		queues.remove(flightId);
+	}
+
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+	private void drain(int flightId, FlightQueue queue) {
+		List<Request> batch = new ArrayList<>();
+		for (Request request; (request = queue.pending.poll()) != null;) {
+			batch.add(request);
+		}
+		try {
+			if (!batch.isEmpty()) {
+				apply(flightId, batch);
+			}
+		} finally {
+			queue.scheduled.set(false);
+			// requests that arrived while this batch was in the database
+			if (!queue.pending.isEmpty() && queue.scheduled.compareAndSet(false, true)) {
+				executor.execute(() -> drain(flightId, queue));
+			}
+		}
+	}
+
+	private void apply(int flightId, List<Request> batch) {
+		boolean[] granted = new boolean[batch.size()];
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				int available = flightRepository.lockAvailableSeats(flightId)
+						.orElseThrow(() -> new ResourceNotFoundException("flight by this id not found"));
+				int taken = 0;
+				for (int i = 0; i < batch.size(); i++) {
+					granted[i] = batch.get(i).seats() <= available - taken;
+					if (granted[i]) {
+						taken += batch.get(i).seats();
+					}
+				}
+				if (taken > 0) {
+					// the row is locked, so the guard can only fail if the lock was not honoured
+					if (flightRepository.reserveSeats(flightId, taken) == 0) {
+						throw new IllegalStateException("Seats changed under a locked flight row");
+					}
+					eventPublisher.publishEvent(new FlightChangedEvent(flightId, ChangeType.SEATS_CHANGED));
+				}
+			});
+		} catch (RuntimeException ex) {
+			batch.forEach(request -> request.result().completeExceptionally(ex));
+			return;
+		}
+		for (int i = 0; i < batch.size(); i++) {
+			if (granted[i]) {
+				batch.get(i).result().complete(null);
+			} else {
+				batch.get(i).result().completeExceptionally(new SeatConflictException("Not enough seats available"));
+			}
+		}
+	}
+}
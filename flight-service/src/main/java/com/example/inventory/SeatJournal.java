@@ -0,0 +1,301 @@
+package com.example.inventory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead log of seat deltas for {@link InMemorySeatInventory}.
+ *
+ * Each change is an 8-byte record (flight id, delta) appended to the current
+ * segment file. A single writer thread group-commits: it writes everything
+ * appended since its last pass and forces it to disk once, then completes the
+ * callers' futures. The cost of one fsync is shared by every reservation that
+ * arrived meanwhile.
+ *
+ * The journal also sums the deltas not yet persisted to the database.
+ * {@link #checkpoint()} hands them over and starts a new segment, atomically
+ * with respect to {@link #append}, so the sealed segments hold exactly the
+ * records behind the deltas handed over. Once the database has them,
+ * {@link #committed} deletes those segments. After a crash, {@link #recover}
+ * replays the segments the database has not seen.
+ */
+class SeatJournal implements AutoCloseable {
+
+	private static final int RECORD_BYTES = 8;
+	private static final int INITIAL_BUFFER = 64 * 1024;
+	private static final String PREFIX = "seats-";
+	private static final String SUFFIX = ".log";
+
+	/**
+	 * Deltas handed to the database, and the last segment holding their
+	 * records.
+	 */
+	record Checkpoint(Map<Integer, Integer> deltas, long lastSegment) {
+	}
+
+	/**
+	 * Deltas found on disk that the database had not recorded yet.
+	 */
+	record Recovery(Map<Integer, Integer> deltas, long lastSegment, List<Path> files) {
+	}
+
+	private final Path dir;
+	private final Object lock = new Object();
+	// held while the channel is written or swapped; taken before lock
+	private final ReentrantLock io = new ReentrantLock();
+	private final Thread writer;
+
+	// guarded by lock
+	private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER);
+	private List<CompletableFuture<Void>> waiters = new ArrayList<>();
+	private Map<Integer, Integer> pending = new HashMap<>();
+	private IOException failure;
+	private boolean closed;
+
+	// guarded by io
+	private final List<Path> sealed = new ArrayList<>();
+	private FileChannel channel;
+	private long segment;
+
+	SeatJournal(Path dir, long firstSegment) throws IOException {
+		this.dir = Files.createDirectories(dir);
+		open(firstSegment);
+		this.writer = new Thread(this::writeLoop, "seat-journal-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Reads every segment after {@code appliedSegment}. Segments up to it
+	 * were already applied and are only returned for deletion. A torn record
+	 * at the end of a segment was never acknowledged and is ignored.
+	 */
+	static Recovery recover(Path dir, long appliedSegment) throws IOException {
+		Map<Integer, Integer> deltas = new HashMap<>();
+		List<Path> files = new ArrayList<>();
+		long last = appliedSegment;
+		if (!Files.isDirectory(dir)) {
+			return new Recovery(deltas, last, files);
+		}
+		try (Stream<Path> listing = Files.list(dir)) {
+			for (Path file : listing.filter(SeatJournal::isSegment).sorted().toList()) {
+				files.add(file);
+				long number = segmentNumber(file);
+				if (number <= appliedSegment) {
+					continue;
+				}
+				ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(file));
+				while (records.remaining() >= RECORD_BYTES) {
+					deltas.merge(records.getInt(), records.getInt(), Integer::sum);
+				}
+				last = Math.max(last, number);
+			}
+		}
+		return new Recovery(deltas, last, files);
+	}
+
+	/**
+	 * @return a future completed once the record is on disk
+	 * @throws IllegalStateException if the journal is closed or has failed
+	 */
+	CompletableFuture<Void> append(int flightId, int delta) {
+		CompletableFuture<Void> durable = new CompletableFuture<>();
+		synchronized (lock) {
+			if (closed || failure != null) {
+				throw new IllegalStateException("Seat journal is unavailable", failure);
+			}
+			if (buffer.remaining() < RECORD_BYTES) {
+				ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+				buffer.flip();
+				buffer = larger.put(buffer);
+			}
+			buffer.putInt(flightId).putInt(delta);
+			pending.merge(flightId, delta, Integer::sum);
+			waiters.add(durable);
+			if (waiters.size() == 1) {
+				lock.notify();
+			}
+		}
+		return durable;
+	}
+
+	/**
+	 * Hands over the deltas appended since the last checkpoint and seals the
+	 * segment holding them.
+	 *
+	 * @return null if nothing was appended
+	 */
+	Checkpoint checkpoint() throws IOException {
+		io.lock();
+		try {
+			Map<Integer, Integer> deltas;
+			Batch batch;
+			synchronized (lock) {
+				if (failure != null) {
+					throw failure;
+				}
+				if (pending.isEmpty()) {
+					return null;
+				}
+				// in one step with the swap, so the records and deltas match
+				deltas = pending;
+				pending = new HashMap<>();
+				batch = takeBatch();
+			}
+			write(batch);
+
+			long last = segment;
+			channel.close();
+			sealed.add(segmentPath(last));
+			open(last + 1);
+			return new Checkpoint(deltas, last);
+		} finally {
+			io.unlock();
+		}
+	}
+
+	/**
+	 * The database has the checkpoint's deltas: their segments (and those of
+	 * any earlier checkpoint that was {@linkplain #restore restored}) can go.
+	 */
+	void committed(Checkpoint checkpoint) throws IOException {
+		io.lock();
+		try {
+			for (Iterator<Path> it = sealed.iterator(); it.hasNext();) {
+				Path file = it.next();
+				if (segmentNumber(file) <= checkpoint.lastSegment()) {
+					Files.deleteIfExists(file);
+					it.remove();
+				}
+			}
+		} finally {
+			io.unlock();
+		}
+	}
+
+	/**
+	 * The database write failed; the deltas go back to the next checkpoint.
+	 * Their segments stay until that one commits.
+	 */
+	void restore(Checkpoint checkpoint) {
+		synchronized (lock) {
+			checkpoint.deltas().forEach((flightId, delta) -> pending.merge(flightId, delta, Integer::sum));
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (lock) {
+			closed = true;
+			lock.notifyAll();
+		}
+		try {
+			writer.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		io.lock();
+		try {
+			channel.close();
+		} finally {
+			io.unlock();
+		}
+	}
+
+	private void writeLoop() {
+		while (true) {
+			synchronized (lock) {
+				while (waiters.isEmpty() && !closed) {
+					try {
+						lock.wait();
+					} catch (InterruptedException ex) {
+						return;
+					}
+				}
+				if (waiters.isEmpty()) {
+					return;
+				}
+			}
+			io.lock();
+			try {
+				Batch batch;
+				synchronized (lock) {
+					batch = takeBatch();
+				}
+				write(batch);
+			} catch (IOException ex) {
+				// already reported to the waiting callers
+			} finally {
+				io.unlock();
+			}
+		}
+	}
+
+	private record Batch(ByteBuffer records, List<CompletableFuture<Void>> waiters) {
+	}
+
+	// caller holds lock
+	private Batch takeBatch() {
+		if (waiters.isEmpty()) {
+			return new Batch(buffer, List.of());
+		}
+		Batch batch = new Batch(buffer, waiters);
+		buffer = ByteBuffer.allocate(Math.max(INITIAL_BUFFER, buffer.capacity()));
+		waiters = new ArrayList<>();
+		return batch;
+	}
+
+	// caller holds io
+	private void write(Batch batch) throws IOException {
+		if (batch.waiters().isEmpty()) {
+			return;
+		}
+		ByteBuffer records = batch.records().flip();
+		try {
+			while (records.hasRemaining()) {
+				channel.write(records);
+			}
+			channel.force(false);
+		} catch (IOException ex) {
+			synchronized (lock) {
+				failure = ex;
+			}
+			batch.waiters().forEach(waiter -> waiter.completeExceptionally(new UncheckedIOException(ex)));
+			throw ex;
+		}
+		batch.waiters().forEach(waiter -> waiter.complete(null));
+	}
+
+	private void open(long number) throws IOException {
+		segment = number;
+		channel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+	}
+
+	private Path segmentPath(long number) {
+		return dir.resolve(String.format("%s%016d%s", PREFIX, number, SUFFIX));
+	}
+
+	private static boolean isSegment(Path file) {
+		String name = file.getFileName().toString();
+		return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+	}
+
+	private static long segmentNumber(Path file) {
+		String name = file.getFileName().toString();
+		return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+	}
+}
@@ -0,0 +1,91 @@
+package com.example.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatConflictException;
+
+/**
+ * Takes seats from and gives seats back to a flight's availability. The
+ * implementation is chosen with {@code flight.inventory.mode}:
+ * {@code database} (default, {@link DatabaseSeatReserver}) or {@code memory}
+ * ({@link InMemorySeatInventory}).
+ */
+public interface SeatReserver {
+
+	/**
+	 * @throws ResourceNotFoundException if the flight does not exist
+	 * @throws SeatConflictException     if fewer than {@code seats} are available
+	 */
+	void reserve(int flightId, int seats);
+
+	/**
+	 * @throws ResourceNotFoundException if the flight does not exist
+	 * @throws SeatConflictException     if availability would exceed the
+	 *                                   flight's total seats
+	 */
+	void release(int flightId, int seats);
+
+	/**
+	 * Reserves seats on every flight or on none, e.g. for the legs of one
+	 * itinerary. This default reserves in flight-id order and gives back
+	 * what it took if a later flight fails.
+	 *
+	 * @param seatsByFlight seats per flight id
+	 * @throws ResourceNotFoundException if a flight does not exist
+	 * @throws SeatConflictException     if a flight has too few seats
+	 */
+	default void reserveAll(SortedMap<Integer, Integer> seatsByFlight) {
+		List<Map.Entry<Integer, Integer>> reserved = new ArrayList<>();
+		try {
+			for (Map.Entry<Integer, Integer> entry : seatsByFlight.entrySet()) {
+				reserve(entry.getKey(), entry.getValue());
+				reserved.add(entry);
+			}
+		} catch (RuntimeException ex) {
+			reserved.forEach(entry -> release(entry.getKey(), entry.getValue()));
+			throw ex;
+		}
+	}
+
+	/**
+	 * Releases seats on every flight or on none; the counterpart of
+	 * {@link #reserveAll}.
+	 */
+	default void releaseAll(SortedMap<Integer, Integer> seatsByFlight) {
+		List<Map.Entry<Integer, Integer>> released = new ArrayList<>();
+		try {
+			for (Map.Entry<Integer, Integer> entry : seatsByFlight.entrySet()) {
+				release(entry.getKey(), entry.getValue());
+				released.add(entry);
+			}
+		} catch (RuntimeException ex) {
+			released.forEach(entry -> reserve(entry.getKey(), entry.getValue()));
+			throw ex;
+		}
+	}
+
+	/**
+	 * @return true if {@link #reserve} and {@link #release} called inside a
+	 *         transaction take part in it and are undone if it rolls back;
+	 *         false if they take effect immediately either way
+	 */
+	default boolean joinsTransactions() {
+		return false;
+	}
+
+	/**
+	 * Drops anything held for a deleted flight.
+	 */
+	default void evict(int flightId) {
+	}
+
+	static void requirePositive(int seats) {
+		if (seats <= 0) {
+			throw new IllegalArgumentException("seats must be positive");
+		}
+	}
+}
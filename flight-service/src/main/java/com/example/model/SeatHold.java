@@ -0,0 +1,35 @@
+package com.example.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Seats taken from a flight's availability until the hold is confirmed,
+ * released or expires. An outstanding hold's outcome is decided by whoever
+ * first deletes the row (release, expiry) or marks it confirmed. Confirmed
+ * rows are kept for {@code flight.hold.confirmed-retention-hours}, so a
+ * retried confirm still succeeds.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+// the overdue sweep looks holds up by expiry
+@Entity
+@Table(indexes = @Index(name = "idx_seat_hold_expires_at", columnList = "expiresAt"))
+public class SeatHold {
+	@Id
+	private String holdId;
+	private int flightId;
+	private int seats;
+	private Instant expiresAt;
+	private boolean confirmed;
+}
@@ -0,0 +1,22 @@
+package com.example.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last journal segment of a node whose seat deltas are in the flight table.
+ * Written in the same transaction as the deltas, so replaying the journal
+ * after a crash never applies a segment twice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class SeatJournalCheckpoint {
+	@Id
+	private String nodeId;
+	private long lastSegment;
+}
@@ -2,12 +2,19 @@ package com.example.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.model.Flight;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface FlightRepository extends JpaRepository<Flight, Integer> {
 	List<Flight> findByOrigin(String origin);
@@ -18,4 +25,35 @@ public interface FlightRepository extends JpaRepository<Flight, Integer> {
 
 	List<Flight> findByOriginAndDestinationAndDepartureTimeBetween(String origin, String destination,
 			LocalDateTime start, LocalDateTime end);
+
+	/**
+	 * Takes {@code seats} in one statement; the row lock and the
+	 * {@code availableSeats >= seats} guard make concurrent reservations safe
+	 * without reading the flight first.
+	 *
+	 * @return 1 if reserved, 0 if the flight does not exist or is too full
+	 */
+	@Modifying
+	@Query("update Flight f set f.availableSeats = f.availableSeats - :seats"
+			+ " where f.flightId = :id and f.availableSeats >= :seats")
+	int reserveSeats(@Param("id") int flightId, @Param("seats") int seats);
+
+	/**
+	 * Locks the flight row until the end of the transaction, for deciding
+	 * several reservations against one read.
+	 *
+	 * @return the seats available, or empty if the flight does not exist
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select f.availableSeats from Flight f where f.flightId = :id")
+	Optional<Integer> lockAvailableSeats(@Param("id") int flightId);
+
+	/**
+	 * @return 1 if released, 0 if the flight does not exist or would end up
+	 *         with more seats available than it has
+	 */
+	@Modifying
+	@Query("update Flight f set f.availableSeats = f.availableSeats + :seats"
+			+ " where f.flightId = :id and f.availableSeats + :seats <= f.totalSeats")
+	int releaseSeats(@Param("id") int flightId, @Param("seats") int seats);
 }
@@ -0,0 +1,68 @@
+package com.example.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.SeatHold;
+
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, String> {
+
+	/**
+	 * @return 1 if the hold was still live and is now confirmed, 0 if it
+	 *         does not exist, has expired or was already confirmed
+	 */
+	@Modifying
+	@Query("update SeatHold h set h.confirmed = true where h.holdId = :id and h.confirmed = false and h.expiresAt > :now")
+	int confirmLive(@Param("id") String holdId, @Param("now") Instant now);
+
+	boolean existsByHoldIdAndConfirmedTrue(String holdId);
+
+	/**
+	 * @return 1 if this call resolved the hold, 0 if something else did
+	 */
+	@Modifying
+	@Query("delete from SeatHold h where h.holdId = :id and h.confirmed = false")
+	int deleteHold(@Param("id") String holdId);
+
+	/**
+	 * @return 1 if this call removed the hold, confirmed or not, 0 if
+	 *         something else already did
+	 */
+	@Modifying
+	@Query("delete from SeatHold h where h.holdId = :id")
+	int deleteAnyHold(@Param("id") String holdId);
+
+	/**
+	 * @return 1 if the hold expired and this call resolved it
+	 */
+	@Modifying
+	@Query("delete from SeatHold h where h.holdId = :id and h.confirmed = false and h.expiresAt <= :now")
+	int deleteExpired(@Param("id") String holdId, @Param("now") Instant now);
+
+	/**
+	 * Forgets confirmed holds that expired before {@code before}; a confirm
+	 * retried after that gets a 404.
+	 */
+	@Modifying
+	@Query("delete from SeatHold h where h.confirmed = true and h.expiresAt <= :before")
+	int deleteConfirmed(@Param("before") Instant before);
+
+	@Modifying
+	@Query("delete from SeatHold h where h.flightId = :flightId")
+	int deleteByFlightId(@Param("flightId") int flightId);
+
+	@Query("select h from SeatHold h where h.confirmed = false and h.expiresAt <= :before order by h.expiresAt")
+	List<SeatHold> findExpired(@Param("before") Instant before, Pageable page);
+
+	@Query("select h from SeatHold h where h.confirmed = false")
+	Stream<SeatHold> streamOutstanding();
+}
@@ -0,0 +1,10 @@
+package com.example.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.SeatJournalCheckpoint;
+
+@Repository
+public interface SeatJournalCheckpointRepository extends JpaRepository<SeatJournalCheckpoint, String> {
+}
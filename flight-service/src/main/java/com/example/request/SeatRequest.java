@@ -0,0 +1,19 @@
+package com.example.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One leg of a batch reservation or release.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatRequest {
+	private int flightId;
+	private int seats;
+
+}
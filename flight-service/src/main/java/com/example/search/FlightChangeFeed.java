@@ -0,0 +1,39 @@
+package com.example.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.example.event.FlightChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps {@link FlightSearchIndex} in step with changes made on other
+ * replicas. Every instance uses its own consumer group so each one sees
+ * every event, including its own, which it already applied; re-reading a
+ * flight is idempotent.
+ */
+@Component
+public class FlightChangeFeed {
+
+	private static final Logger logger = LoggerFactory.getLogger(FlightChangeFeed.class);
+
+	private final FlightSearchIndex searchIndex;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public FlightChangeFeed(FlightSearchIndex searchIndex) {
+		this.searchIndex = searchIndex;
+	}
+
+	@KafkaListener(topics = "${flight.kafka.topic.changes:flight-changes}",
+			groupId = "flight-search-#{T(java.util.UUID).randomUUID()}",
+			autoStartup = "${flight.search.index-enabled:true}")
+	public void onFlightChanged(String payload) {
+		try {
+			searchIndex.markDirty(objectMapper.readValue(payload, FlightChangedEvent.class).getFlightId());
+		} catch (Exception ex) {
+			logger.warn("Ignoring malformed flight change event {}: {}", payload, ex.getMessage());
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package com.example.search;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.event.FlightChangedEvent;
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+
+/**
+ * Route search served from memory. Flights are grouped by (origin,
+ * destination), each route an immutable snapshot sorted by departure time
+ * with the departure instants in a parallel {@code long[]}, so a day-range
+ * query is two binary searches and no database round trip.
+ *
+ * Built from the flight table on startup. Changes, this node's and (through
+ * {@link FlightChangeFeed}) every other replica's, only mark a flight dirty;
+ * dirty flights are re-read in one query every
+ * {@code flight.search.refresh-ms}, so a burst of seat changes on a hot
+ * flight costs one read. A full rebuild every {@code flight.search.rebuild-ms}
+ * repairs anything a lost event left behind.
+ */
+@Service
+public class FlightSearchIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(FlightSearchIndex.class);
+
+	private record Route(String origin, String destination) {
+
+		static Route of(Flight flight) {
+			return new Route(flight.getOrigin(), flight.getDestination());
+		}
+	}
+
+	private static final class RouteFlights {
+		static final Comparator<Flight> ORDER = Comparator.comparing(Flight::getDepartureTime)
+				.thenComparingInt(Flight::getFlightId);
+
+		final long[] departures;
+		final Flight[] flights;
+
+		RouteFlights(List<Flight> flights) {
+			this.flights = flights.stream().sorted(ORDER).toArray(Flight[]::new);
+			this.departures = new long[this.flights.length];
+			for (int i = 0; i < this.flights.length; i++) {
+				departures[i] = key(this.flights[i].getDepartureTime());
+			}
+		}
+
+		List<Flight> between(long from, long to) {
+			int start = lowerBound(from);
+			int end = lowerBound(to + 1);
+			return start < end ? List.of(Arrays.copyOfRange(flights, start, end)) : List.of();
+		}
+
+		// first index whose departure is >= key
+		private int lowerBound(long key) {
+			int low = 0;
+			int high = departures.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (departures[mid] < key) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
+	private final FlightRepository flightRepository;
+	private final boolean enabled;
+	private final Map<Route, RouteFlights> routes = new ConcurrentHashMap<>();
+	private final Map<Integer, Route> routeOf = new ConcurrentHashMap<>();
+	private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+	private volatile boolean ready;
+
+	public FlightSearchIndex(FlightRepository flightRepository,
+			@Value("${flight.search.index-enabled:true}") boolean enabled) {
+		this.flightRepository = flightRepository;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return false until the first build finished, or if the index is
+	 *         disabled; callers then query the database
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * @return the route's flights departing in [start, end], by departure
+	 */
+	public List<Flight> find(String origin, String destination, LocalDateTime start, LocalDateTime end) {
+		RouteFlights flights = routes.get(new Route(origin, destination));
+		return flights == null ? List.of() : flights.between(key(start), key(end));
+	}
+
+	/**
+	 * @return all of the route's flights, by departure
+	 */
+	public List<Flight> find(String origin, String destination) {
+		RouteFlights flights = routes.get(new Route(origin, destination));
+		return flights == null ? List.of() : List.of(flights.flights);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onLocalChange(FlightChangedEvent event) {
+		markDirty(event.getFlightId());
+	}
+
+	void markDirty(int flightId) {
+		if (enabled) {
+			dirty.add(flightId);
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(initialDelayString = "${flight.search.rebuild-ms:600000}",
+			fixedDelayString = "${flight.search.rebuild-ms:600000}")
+	public synchronized void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		Map<Route, List<Flight>> byRoute = new HashMap<>();
+		Map<Integer, Route> newRouteOf = new HashMap<>();
+		for (Flight flight : flightRepository.findAll()) {
+			if (flight.getDepartureTime() != null) {
+				Route route = Route.of(flight);
+				byRoute.computeIfAbsent(route, r -> new ArrayList<>()).add(flight);
+				newRouteOf.put(flight.getFlightId(), route);
+			}
+		}
+		byRoute.forEach((route, flights) -> routes.put(route, new RouteFlights(flights)));
+		routes.keySet().retainAll(byRoute.keySet());
+		routeOf.putAll(newRouteOf);
+		routeOf.keySet().retainAll(newRouteOf.keySet());
+		if (!ready) {
+			logger.info("Flight search index built: {} flights on {} routes", newRouteOf.size(), byRoute.size());
+		}
+		ready = true;
+	}
+
+	@Scheduled(fixedDelayString = "${flight.search.refresh-ms:100}")
+	public synchronized void refresh() {
+		if (!ready || dirty.isEmpty()) {
+			return;
+		}
+		Set<Integer> ids = new HashSet<>(dirty);
+		dirty.removeAll(ids);
+		try {
+			apply(ids, flightRepository.findAllById(ids));
+		} catch (RuntimeException ex) {
+			dirty.addAll(ids);
+			logger.warn("Flight search index refresh failed, retrying: {}", ex.getMessage());
+		}
+	}
+
+	private void apply(Collection<Integer> ids, List<Flight> current) {
+		Map<Integer, Flight> byId = new HashMap<>();
+		current.forEach(flight -> byId.put(flight.getFlightId(), flight));
+
+		Map<Route, List<Flight>> touched = new HashMap<>();
+		for (int id : ids) {
+			Route previous = routeOf.remove(id);
+			if (previous != null) {
+				touched.computeIfAbsent(previous, this::flightsOf).removeIf(flight -> flight.getFlightId() == id);
+			}
+			Flight flight = byId.get(id);
+			if (flight != null && flight.getDepartureTime() != null) {
+				Route route = Route.of(flight);
+				touched.computeIfAbsent(route, this::flightsOf).add(flight);
+				routeOf.put(id, route);
+			}
+		}
+		touched.forEach((route, flights) -> {
+			if (flights.isEmpty()) {
+				routes.remove(route);
+			} else {
+				routes.put(route, new RouteFlights(flights));
+			}
+		});
+	}
+
+	private List<Flight> flightsOf(Route route) {
+		RouteFlights flights = routes.get(route);
+		return flights == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(flights.flights));
+	}
+
+	private static long key(LocalDateTime time) {
+		return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+	}
+}
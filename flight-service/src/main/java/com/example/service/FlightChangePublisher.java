@@ -0,0 +1,38 @@
+package com.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.event.FlightChangedEvent;
+
+/**
+ * Forwards {@link FlightChangedEvent}s to Kafka once the change is committed,
+ * so the gateway cache never drops an entry for a change that rolled back.
+ */
+@Component
+public class FlightChangePublisher {
+
+	private static final Logger logger = LoggerFactory.getLogger(FlightChangePublisher.class);
+
+	private final KafkaTemplate<String, FlightChangedEvent> kafkaTemplate;
+	private final String topic;
+
+	public FlightChangePublisher(KafkaTemplate<String, FlightChangedEvent> kafkaTemplate,
+			@Value("${flight.kafka.topic.changes:flight-changes}") String topic) {
+		this.kafkaTemplate = kafkaTemplate;
+		this.topic = topic;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void publish(FlightChangedEvent event) {
+		try {
+			kafkaTemplate.send(topic, String.valueOf(event.getFlightId()), event);
+		} catch (Exception ex) {
+			logger.error("Kafka failed for flight change {}: {}", event.getFlightId(), ex.getMessage());
+		}
+	}
+}
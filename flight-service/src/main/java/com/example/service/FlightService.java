@@ -2,47 +2,74 @@ package com.example.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.example.event.FlightChangedEvent;
+import com.example.event.FlightChangedEvent.ChangeType;
 import com.example.exception.ResourceNotFoundException;
+import com.example.inventory.SeatReserver;
 import com.example.model.Flight;
 import com.example.repository.FlightRepository;
 import com.example.request.FlightRequest;
 import com.example.request.SearchRequest;
+import com.example.request.SeatRequest;
+import com.example.search.FlightSearchIndex;
 
 @Service
 public class FlightService {
 
     private final FlightRepository flightRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SeatReserver seatReserver;
+    private final FlightSearchIndex searchIndex;
 
-    public FlightService(FlightRepository flightRepository) {
+    public FlightService(FlightRepository flightRepository, ApplicationEventPublisher eventPublisher,
+            SeatReserver seatReserver, FlightSearchIndex searchIndex) {
         this.flightRepository = flightRepository;
+        this.eventPublisher = eventPublisher;
+        this.seatReserver = seatReserver;
+        this.searchIndex = searchIndex;
     }
 
-    @Transactional
     public void reserveSeats(int flightId, int seats) {
-        Flight flight = flightRepository.findById(flightId)
-                .orElseThrow(() -> new RuntimeException("Flight not found"));
+        seatReserver.reserve(flightId, seats);
+    }
 
-        if (flight.getAvailableSeats() < seats) {
-            throw new RuntimeException("Not enough seats available");
-        }
+    public void releaseSeats(int flightId, int seats) {
+        seatReserver.release(flightId, seats);
+    }
 
-        flight.setAvailableSeats(flight.getAvailableSeats() - seats);
-        flightRepository.save(flight);
+    /**
+     * Reserves every leg or none.
+     */
+    public void reserveSeats(List<SeatRequest> requests) {
+        seatReserver.reserveAll(byFlight(requests));
     }
 
-    @Transactional
-    public void releaseSeats(int flightId, int seats) {
-        Flight flight = flightRepository.findById(flightId)
-                .orElseThrow(() -> new RuntimeException("Flight not found"));
+    /**
+     * Releases every leg or none.
+     */
+    public void releaseSeats(List<SeatRequest> requests) {
+        seatReserver.releaseAll(byFlight(requests));
+    }
 
-        flight.setAvailableSeats(flight.getAvailableSeats() + seats);
-        flightRepository.save(flight);
+    // legs on the same flight are merged; the sort order is the lock order
+    private static SortedMap<Integer, Integer> byFlight(List<SeatRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("at least one flight is required");
+        }
+        SortedMap<Integer, Integer> seatsByFlight = new TreeMap<>();
+        for (SeatRequest request : requests) {
+            SeatReserver.requirePositive(request.getSeats());
+            seatsByFlight.merge(request.getFlightId(), request.getSeats(), Integer::sum);
+        }
+        return seatsByFlight;
     }
 
     public ResponseEntity<Integer> registerFlightByIDService(FlightRequest req) {
@@ -59,6 +86,7 @@ public class FlightService {
                 .build();
 
         Flight savedFlight = flightRepository.save(flight);
+        eventPublisher.publishEvent(new FlightChangedEvent(savedFlight.getFlightId(), ChangeType.CREATED));
         return new ResponseEntity<>(savedFlight.getFlightId(), HttpStatus.CREATED);
     }
 
@@ -69,8 +97,9 @@ public class FlightService {
     }
 
     public ResponseEntity<List<Flight>> getByOriginAndDestinationService(SearchRequest req) {
-        List<Flight> listOfFlights =
-                flightRepository.findByOriginAndDestination(req.getOrigin(), req.getDestination());
+        List<Flight> listOfFlights = searchIndex.isReady()
+                ? searchIndex.find(req.getOrigin(), req.getDestination())
+                : flightRepository.findByOriginAndDestination(req.getOrigin(), req.getDestination());
         return new ResponseEntity<>(listOfFlights, HttpStatus.OK);
     }
 
@@ -79,8 +108,9 @@ public class FlightService {
         LocalDateTime start = req.getDepartureDateTime().toLocalDate().atStartOfDay();
         LocalDateTime end = req.getDepartureDateTime().toLocalDate().atTime(23, 59, 59);
 
-        List<Flight> listOfFlights =
-                flightRepository.findByOriginAndDestinationAndDepartureTimeBetween(
+        List<Flight> listOfFlights = searchIndex.isReady()
+                ? searchIndex.find(req.getOrigin(), req.getDestination(), start, end)
+                : flightRepository.findByOriginAndDestinationAndDepartureTimeBetween(
                         req.getOrigin(), req.getDestination(), start, end);
 
         return new ResponseEntity<>(listOfFlights, HttpStatus.OK);
@@ -91,6 +121,8 @@ public class FlightService {
                 .orElseThrow(() -> new ResourceNotFoundException("flight by this id not found"));
 
         flightRepository.deleteById(id);
+        seatReserver.evict(id);
+        eventPublisher.publishEvent(new FlightChangedEvent(id, ChangeType.DELETED));
         return new ResponseEntity<>("deleted", HttpStatus.OK);
     }
 
@@ -19,6 +19,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.example.hold.SeatHoldService;
 import com.example.model.Airline;
 import com.example.model.Flight;
 import com.example.request.FlightRequest;
@@ -35,6 +36,9 @@ class FlightControllerTest {
 	@MockBean
 	private FlightService flightService;
 
+	@MockBean
+	private SeatHoldService seatHoldService;
+
 	@Autowired
 	private ObjectMapper mapper;
 
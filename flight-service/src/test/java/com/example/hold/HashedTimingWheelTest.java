@@ -0,0 +1,80 @@
+package com.example.hold;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class HashedTimingWheelTest {
+
+	private final Set<Integer> fired = ConcurrentHashMap.newKeySet();
+	private final AtomicLong firedAt = new AtomicLong();
+	private HashedTimingWheel<Integer> wheel;
+
+	@AfterEach
+	void tearDown() {
+		wheel.close();
+	}
+
+	@Test
+	void testFiresNoEarlierThanTheDeadline() throws Exception {
+		CountDownLatch done = new CountDownLatch(1);
+		wheel = new HashedTimingWheel<>("test-wheel", 10, TimeUnit.MILLISECONDS, 8, due -> {
+			firedAt.set(System.nanoTime());
+			fired.addAll(due);
+			done.countDown();
+		});
+		long start = System.nanoTime();
+		// several revolutions of an 8-bucket, 10 ms wheel
+		wheel.schedule(1, 250, TimeUnit.MILLISECONDS);
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(firedAt.get() - start);
+		assertTrue(elapsedMs >= 250, "fired after " + elapsedMs + " ms");
+		assertEquals(Set.of(1), fired);
+	}
+
+	@Test
+	void testCancelledTimeoutsNeverFire() throws Exception {
+		wheel = new HashedTimingWheel<>("test-wheel", 5, TimeUnit.MILLISECONDS, 16, fired::addAll);
+		List<HashedTimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			timeouts.add(wheel.schedule(i, 50, TimeUnit.MILLISECONDS));
+		}
+		for (int i = 0; i < 100; i += 2) {
+			assertTrue(timeouts.get(i).cancel());
+		}
+
+		Thread.sleep(300);
+		assertEquals(50, fired.size());
+		assertTrue(fired.stream().allMatch(i -> i % 2 == 1));
+		assertFalse(timeouts.get(1).cancel());
+	}
+
+	@Test
+	void testMillionsOfTimeouts() throws Exception {
+		int count = 1_000_000;
+		CountDownLatch done = new CountDownLatch(count);
+		wheel = new HashedTimingWheel<>("test-wheel", 10, TimeUnit.MILLISECONDS, 512,
+				due -> due.forEach(i -> done.countDown()));
+
+		long start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			wheel.schedule(i, 100 + i % 1000, TimeUnit.MILLISECONDS);
+		}
+		long scheduleMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		assertTrue(scheduleMs < 5_000, "scheduling took " + scheduleMs + " ms");
+	}
+}
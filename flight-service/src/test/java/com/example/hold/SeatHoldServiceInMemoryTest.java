@@ -0,0 +1,84 @@
+package com.example.hold;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.inventory.SeatReserver;
+import com.example.model.SeatHold;
+import com.example.repository.SeatHoldRepository;
+
+// A reserver that does not join transactions, like the in-memory inventory:
+// seats must only go back once the hold's delete has committed.
+@ExtendWith(MockitoExtension.class)
+class SeatHoldServiceInMemoryTest {
+
+	@Mock
+	private SeatHoldRepository holdRepository;
+
+	@Mock
+	private SeatReserver seatReserver;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	private SeatHoldService seatHoldService;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		doAnswer(invocation -> {
+			invocation.getArgument(0, Consumer.class).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+		seatHoldService = new SeatHoldService(holdRepository, seatReserver, transactionTemplate, 1, 20, 64, 60, 24);
+	}
+
+	@AfterEach
+	void tearDown() {
+		seatHoldService.destroy();
+	}
+
+	@Test
+	void testExpiryReleasesOnceEvenIfTheFirstCommitFails() {
+		when(holdRepository.streamOutstanding()).thenReturn(Stream.of(SeatHold.builder().holdId("h1").flightId(7).seats(2)
+				.expiresAt(Instant.now().minusSeconds(1)).build()));
+		// the delete runs both times: the failed commit rolled the first one back
+		when(holdRepository.deleteExpired(anyString(), any())).thenReturn(1);
+		AtomicInteger commits = new AtomicInteger();
+		when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+			Object result = invocation.getArgument(0, TransactionCallback.class).doInTransaction(null);
+			if (commits.incrementAndGet() == 1) {
+				throw new TransactionSystemException("commit failed");
+			}
+			return result;
+		});
+
+		seatHoldService.trackOutstanding();
+
+		verify(seatReserver, after(1000).never()).release(7, 2);
+		verify(seatReserver, timeout(10_000)).release(7, 2);
+		verify(seatReserver, after(500).times(1)).release(7, 2);
+	}
+}
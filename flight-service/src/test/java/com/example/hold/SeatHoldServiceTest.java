@@ -0,0 +1,190 @@
+package com.example.hold;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatConflictException;
+import com.example.inventory.DatabaseSeatReserver;
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.model.SeatHold;
+import com.example.repository.FlightRepository;
+import com.example.repository.SeatHoldRepository;
+
+// spring.config.name keeps the test application.properties (and its
+// mandatory config-server import) out of this context
+@DataJpaTest(properties = {
+		"spring.config.name=seat-hold-test",
+		"spring.cloud.config.enabled=false",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"flight.hold.ttl-seconds=1",
+		"flight.hold.tick-ms=20" })
+@AutoConfigureTestDatabase
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ SeatHoldService.class, DatabaseSeatReserver.class })
+class SeatHoldServiceTest {
+
+	private static final int SEATS = 10;
+
+	@Autowired
+	private SeatHoldService seatHoldService;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@SpyBean
+	private SeatHoldRepository holdRepository;
+
+	@SpyBean
+	private DatabaseSeatReserver seatReserver;
+
+	private int flightId;
+
+	@BeforeEach
+	void setUp() {
+		flightId = flightRepository.save(Flight.builder().airline(Airline.INDIGO).origin("DEL").destination("HYD")
+				.price(5000).departureTime(LocalDateTime.now().plusDays(1))
+				.arrivalTime(LocalDateTime.now().plusDays(1).plusHours(2)).totalSeats(SEATS).availableSeats(SEATS)
+				.build()).getFlightId();
+	}
+
+	@AfterEach
+	void tearDown() {
+		holdRepository.deleteAll();
+		flightRepository.deleteAll();
+	}
+
+	@Test
+	void testConfirmedHoldKeepsItsSeats() throws Exception {
+		SeatHold hold = seatHoldService.hold(flightId, 3);
+		assertEquals(SEATS - 3, available());
+
+		seatHoldService.confirm(hold.getHoldId());
+		Thread.sleep(1500);
+		seatHoldService.sweepOverdue();
+
+		assertEquals(SEATS - 3, available());
+		assertThrows(ResourceNotFoundException.class, () -> seatHoldService.release(hold.getHoldId()));
+	}
+
+	// a caller that lost the response to its first confirm retries it
+	@Test
+	void testConfirmIsIdempotent() throws Exception {
+		SeatHold hold = seatHoldService.hold(flightId, 3);
+
+		seatHoldService.confirm(hold.getHoldId());
+		Thread.sleep(1500);
+		seatHoldService.confirm(hold.getHoldId());
+
+		assertEquals(SEATS - 3, available());
+	}
+
+	// the seats are taken in the transaction that saves the hold, so there
+	// is nothing to give back when the save fails
+	@Test
+	void testHoldThatCannotBeSavedTakesNoSeats() {
+		doThrow(new DataIntegrityViolationException("seat_hold")).when(holdRepository).save(any(SeatHold.class));
+
+		assertThrows(DataIntegrityViolationException.class, () -> seatHoldService.hold(flightId, 3));
+
+		assertEquals(SEATS, available());
+		verify(seatReserver, never()).release(anyInt(), anyInt());
+	}
+
+	@Test
+	void testReleasedHoldGivesSeatsBack() {
+		SeatHold hold = seatHoldService.hold(flightId, 4);
+		seatHoldService.release(hold.getHoldId());
+
+		assertEquals(SEATS, available());
+		assertThrows(ResourceNotFoundException.class, () -> seatHoldService.confirm(hold.getHoldId()));
+	}
+
+	// the caller's confirm went through but it never heard back
+	@Test
+	void testCancelGivesBackAConfirmedHold() {
+		SeatHold hold = seatHoldService.hold(flightId, 4);
+		seatHoldService.confirm(hold.getHoldId());
+
+		seatHoldService.cancel(hold.getHoldId());
+
+		assertEquals(SEATS, available());
+		assertThrows(ResourceNotFoundException.class, () -> seatHoldService.cancel(hold.getHoldId()));
+		assertThrows(ResourceNotFoundException.class, () -> seatHoldService.confirm(hold.getHoldId()));
+	}
+
+	@Test
+	void testExpiredHoldGoesBackToInventory() throws Exception {
+		SeatHold hold = seatHoldService.hold(flightId, SEATS);
+		assertThrows(SeatConflictException.class, () -> seatHoldService.hold(flightId, 1));
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (available() != SEATS && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertEquals(SEATS, available());
+		assertTrue(holdRepository.findById(hold.getHoldId()).isEmpty());
+		assertThrows(ResourceNotFoundException.class, () -> seatHoldService.confirm(hold.getHoldId()));
+	}
+
+	@Test
+	void testHoldsFromBeforeARestartStillExpire() throws Exception {
+		Flight flight = flightRepository.findById(flightId).orElseThrow();
+		flight.setAvailableSeats(SEATS - 2);
+		flightRepository.save(flight);
+		holdRepository.save(SeatHold.builder().holdId("left-over").flightId(flightId).seats(2)
+				.expiresAt(Instant.now().minusSeconds(1)).build());
+
+		seatHoldService.trackOutstanding();
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (available() != SEATS && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertEquals(SEATS, available());
+	}
+
+	// another node took these holds and died before expiring them
+	@Test
+	void testSweepReturnsOverdueHoldsNoNodeIsTracking() {
+		Flight flight = flightRepository.findById(flightId).orElseThrow();
+		flight.setAvailableSeats(SEATS - 5);
+		flightRepository.save(flight);
+		holdRepository.save(SeatHold.builder().holdId("orphaned").flightId(flightId).seats(2)
+				.expiresAt(Instant.now().minusSeconds(120)).build());
+		holdRepository.save(SeatHold.builder().holdId("within-grace").flightId(flightId).seats(3)
+				.expiresAt(Instant.now().minusSeconds(5)).build());
+
+		seatHoldService.sweepOverdue();
+
+		assertEquals(SEATS - 3, available());
+		assertTrue(holdRepository.findById("orphaned").isEmpty());
+		assertTrue(holdRepository.findById("within-grace").isPresent());
+	}
+
+	private int available() {
+		return flightRepository.findById(flightId).orElseThrow().getAvailableSeats();
+	}
+}
@@ -0,0 +1,192 @@
+package com.example.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.event.FlightChangedEvent;
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatConflictException;
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+import com.example.repository.SeatJournalCheckpointRepository;
+
+// spring.config.name keeps the test application.properties (and its
+// mandatory config-server import) out of this context
+@DataJpaTest(properties = {
+		"spring.config.name=seat-inventory-test",
+		"spring.cloud.config.enabled=false",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect" })
+@AutoConfigureTestDatabase
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InMemorySeatInventoryTest {
+
+	private static final int SEATS = 120;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private SeatJournalCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@TempDir
+	Path journalDir;
+
+	private final List<FlightChangedEvent> events = new CopyOnWriteArrayList<>();
+	private final List<InMemorySeatInventory> inventories = new ArrayList<>();
+	private int flightId;
+
+	@BeforeEach
+	void setUp() {
+		flightId = flightRepository.save(Flight.builder().airline(Airline.INDIGO).origin("DEL").destination("HYD")
+				.price(5000).departureTime(LocalDateTime.now().plusDays(1))
+				.arrivalTime(LocalDateTime.now().plusDays(1).plusHours(2)).totalSeats(SEATS).availableSeats(SEATS)
+				.build()).getFlightId();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		for (InMemorySeatInventory inventory : inventories) {
+			inventory.destroy();
+		}
+		flightRepository.deleteAll();
+		checkpointRepository.deleteAll();
+	}
+
+	@Test
+	void testConcurrentReservationsNeverOversellAndFlushInOneBatch() throws Exception {
+		InMemorySeatInventory inventory = inventory();
+		AtomicInteger reserved = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(500);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					try {
+						inventory.reserve(flightId, 1);
+						reserved.incrementAndGet();
+					} catch (SeatConflictException full) {
+						rejected.incrementAndGet();
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> result : results) {
+				result.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals(SEATS, reserved.get());
+		assertEquals(380, rejected.get());
+		assertEquals(SEATS, availableInDatabase());
+
+		inventory.flush();
+		assertEquals(0, availableInDatabase());
+		assertEquals(1, events.size());
+		assertEquals(flightId, events.get(0).getFlightId());
+	}
+
+	@Test
+	void testReleaseIsBoundedByTotalSeats() {
+		InMemorySeatInventory inventory = inventory();
+		inventory.reserve(flightId, 3);
+		inventory.release(flightId, 3);
+
+		assertThrows(SeatConflictException.class, () -> inventory.release(flightId, 1));
+		assertThrows(ResourceNotFoundException.class, () -> inventory.reserve(flightId + 1, 1));
+	}
+
+	@Test
+	void testBatchGivesBackEarlierLegsWhenALaterOneFails() {
+		InMemorySeatInventory inventory = inventory();
+
+		assertThrows(ResourceNotFoundException.class,
+				() -> inventory.reserveAll(new TreeMap<>(Map.of(flightId, 4, flightId + 1, 1))));
+		inventory.reserve(flightId, SEATS);
+	}
+
+	@Test
+	void testJournaledReservationsSurviveACrash() {
+		InMemorySeatInventory crashed = inventory();
+		crashed.reserve(flightId, 5);
+		crashed.flush();
+		crashed.reserve(flightId, 2);
+		assertEquals(SEATS - 5, availableInDatabase());
+
+		// a new node on the same journal, without the first one flushing
+		InMemorySeatInventory restarted = inventory();
+		assertEquals(SEATS - 7, availableInDatabase());
+
+		restarted.reserve(flightId, 1);
+		restarted.flush();
+		assertEquals(SEATS - 8, availableInDatabase());
+		assertTrue(checkpointRepository.findById("test").isPresent());
+	}
+
+	@Test
+	void testRefusesToStartOnANodeThatDoesNotOwnTheFlights() {
+		assertThrows(IllegalStateException.class, () -> new InMemorySeatInventory(flightRepository,
+				checkpointRepository, jdbcTemplate, new TransactionTemplate(transactionManager), event -> {
+				}, journalDir.toString(), "test", "other"));
+		assertThrows(IllegalStateException.class, () -> new InMemorySeatInventory(flightRepository,
+				checkpointRepository, jdbcTemplate, new TransactionTemplate(transactionManager), event -> {
+				}, journalDir.toString(), "test", ""));
+	}
+
+	private InMemorySeatInventory inventory() {
+		try {
+			InMemorySeatInventory inventory = new InMemorySeatInventory(flightRepository, checkpointRepository,
+					jdbcTemplate, new TransactionTemplate(transactionManager), event -> events
+							.add((FlightChangedEvent) event),
+					journalDir.toString(), "test", "test");
+			inventories.add(inventory);
+			return inventory;
+		} catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private int availableInDatabase() {
+		return flightRepository.findById(flightId).orElseThrow().getAvailableSeats();
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.event.FlightChangedEvent;
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatConflictException;
+import com.example.repository.FlightRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationBatcherTest {
+
+	@Mock
+	private FlightRepository flightRepository;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	private ReservationBatcher batcher;
+	private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		doAnswer(invocation -> {
+			invocation.getArgument(0, Consumer.class).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+		// a window long enough for every caller to join the first batch
+		batcher = new ReservationBatcher(flightRepository, transactionTemplate, eventPublisher, 200_000, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		callers.shutdownNow();
+		batcher.close();
+	}
+
+	@Test
+	void testConcurrentReservationsShareOneUpdate() throws Exception {
+		when(flightRepository.lockAvailableSeats(1)).thenReturn(Optional.of(10));
+		when(flightRepository.reserveSeats(1, 8)).thenReturn(1);
+
+		List<Throwable> outcomes = reserveConcurrently(1, 2, 2, 2, 2);
+
+		outcomes.forEach(outcome -> assertEquals(null, outcome));
+		verify(flightRepository, times(1)).lockAvailableSeats(1);
+		verify(flightRepository, times(1)).reserveSeats(1, 8);
+		verify(eventPublisher, times(1)).publishEvent(any(FlightChangedEvent.class));
+	}
+
+	@Test
+	void testOnlyRequestsThatFitAreGranted() throws Exception {
+		when(flightRepository.lockAvailableSeats(1)).thenReturn(Optional.of(5));
+		when(flightRepository.reserveSeats(1, 3)).thenReturn(1);
+
+		List<Throwable> outcomes = reserveConcurrently(1, 3, 3);
+
+		assertEquals(1, outcomes.stream().filter(outcome -> outcome == null).count());
+		assertEquals(1, outcomes.stream().filter(SeatConflictException.class::isInstance).count());
+		verify(flightRepository, times(1)).reserveSeats(1, 3);
+	}
+
+	@Test
+	void testUnknownFlightFailsTheWholeBatch() throws Exception {
+		when(flightRepository.lockAvailableSeats(1)).thenReturn(Optional.empty());
+
+		reserveConcurrently(1, 1, 1)
+				.forEach(outcome -> assertInstanceOf(ResourceNotFoundException.class, outcome));
+	}
+
+	private List<Throwable> reserveConcurrently(int flightId, int... seats) throws Exception {
+		List<Future<Throwable>> futures = new ArrayList<>();
+		for (int n : seats) {
+			futures.add(callers.submit(() -> {
+				try {
+					batcher.reserve(flightId, n);
+					return null;
+				} catch (RuntimeException ex) {
+					return ex;
+				}
+			}));
+		}
+		List<Throwable> outcomes = new ArrayList<>();
+		for (Future<Throwable> future : futures) {
+			outcomes.add(future.get(10, TimeUnit.SECONDS));
+		}
+		return outcomes;
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.inventory;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.model.Flight;
+import com.example.model.SeatJournalCheckpoint;
+import com.example.repository.FlightRepository;
+import com.example.repository.SeatJournalCheckpointRepository;
+
+/**
+ * Reservations per second on one hot flight in memory mode, with 64
+ * threads. A call costs a CAS plus its share of a group-committed journal
+ * fsync. The write-behind flush runs every 50 ms, as
+ * {@code flight.inventory.flush-ms} does by default, against an in-memory
+ * H2 database: its deltas and checkpoint really commit, and compete with
+ * the callers for the journal. The flight is read through a mocked
+ * repository, so the cost of loading it once is left out, and so is the
+ * network round trip to a real database. Not run by surefire; from
+ * flight-service:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main SeatInventoryBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class SeatInventoryBenchmark {
+
+	private static final int FLIGHT = 1;
+	private static final int SEATS = Integer.MAX_VALUE;
+	private static final String NODE = "bench";
+
+	private Path journalDir;
+	private JdbcTemplate jdbcTemplate;
+	private InMemorySeatInventory inventory;
+	private ScheduledExecutorService flusher;
+	private final LongAdder reserved = new LongAdder();
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:seat-bench;DB_CLOSE_DELAY=-1"));
+		jdbcTemplate.execute("create table flight (flight_id int primary key, available_seats int not null)");
+		jdbcTemplate.execute("create table seat_journal_checkpoint (node_id varchar(64) primary key, last_segment bigint)");
+		jdbcTemplate.update("insert into flight values (?, ?)", FLIGHT, SEATS);
+
+		FlightRepository flights = mock(FlightRepository.class);
+		when(flights.findById(FLIGHT)).thenReturn(Optional.of(
+				Flight.builder().flightId(FLIGHT).totalSeats(SEATS).availableSeats(SEATS).build()));
+		SeatJournalCheckpointRepository checkpoints = mock(SeatJournalCheckpointRepository.class);
+		when(checkpoints.findById(NODE)).thenReturn(Optional.empty());
+		// the row JPA would write, in the flush's transaction
+		when(checkpoints.save(any())).thenAnswer(invocation -> {
+			SeatJournalCheckpoint checkpoint = invocation.getArgument(0);
+			jdbcTemplate.update("merge into seat_journal_checkpoint key (node_id) values (?, ?)",
+					checkpoint.getNodeId(), checkpoint.getLastSegment());
+			return checkpoint;
+		});
+
+		journalDir = Files.createTempDirectory("seat-journal-bench");
+		inventory = new InMemorySeatInventory(flights, checkpoints, jdbcTemplate,
+				new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource())), event -> {
+				}, journalDir.toString(), NODE, NODE);
+		flusher = Executors.newSingleThreadScheduledExecutor();
+		flusher.scheduleWithFixedDelay(inventory::flush, 50, 50, TimeUnit.MILLISECONDS);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		flusher.shutdown();
+		flusher.awaitTermination(10, TimeUnit.SECONDS);
+		inventory.destroy();
+		long available = jdbcTemplate.queryForObject("select available_seats from flight where flight_id = ?",
+				Long.class, FLIGHT);
+		jdbcTemplate.execute("drop all objects");
+		try (var files = Files.list(journalDir)) {
+			for (Path file : files.toList()) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(journalDir);
+		if (available != SEATS - reserved.sum()) {
+			throw new IllegalStateException(
+					"Flushed " + (SEATS - available) + " reservations of " + reserved.sum());
+		}
+	}
+
+	@Benchmark
+	@Threads(64)
+	public void reserveOneSeat() {
+		inventory.reserve(FLIGHT, 1);
+		reserved.increment();
+	}
+}
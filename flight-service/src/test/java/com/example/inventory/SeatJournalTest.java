@@ -0,0 +1,85 @@
+package com.example.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SeatJournalTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void testRecordsAreDurableBeforeFutureCompletes() throws Exception {
+		try (SeatJournal journal = new SeatJournal(dir, 1)) {
+			CompletableFuture.allOf(journal.append(7, -2), journal.append(7, -1), journal.append(9, 4)).join();
+
+			// what a crash right now would leave behind
+			SeatJournal.Recovery recovery = SeatJournal.recover(dir, 0);
+			assertEquals(Map.of(7, -3, 9, 4), recovery.deltas());
+			assertEquals(1, recovery.lastSegment());
+		}
+	}
+
+	@Test
+	void testCheckpointHandsOverDeltasAndSealsTheirSegment() throws Exception {
+		try (SeatJournal journal = new SeatJournal(dir, 1)) {
+			journal.append(7, -2).join();
+			SeatJournal.Checkpoint first = journal.checkpoint();
+			journal.append(7, -5).join();
+
+			assertEquals(Map.of(7, -2), first.deltas());
+			assertEquals(1, first.lastSegment());
+			assertEquals(Map.of(7, -5), SeatJournal.recover(dir, first.lastSegment()).deltas());
+
+			journal.committed(first);
+			assertEquals(1, Files.list(dir).count());
+			assertEquals(Map.of(7, -5), journal.checkpoint().deltas());
+			assertNull(journal.checkpoint());
+		}
+	}
+
+	@Test
+	void testRestoredDeltasGoToTheNextCheckpoint() throws Exception {
+		try (SeatJournal journal = new SeatJournal(dir, 1)) {
+			journal.append(7, -2).join();
+			SeatJournal.Checkpoint failed = journal.checkpoint();
+			journal.restore(failed);
+			journal.append(7, -1).join();
+
+			SeatJournal.Checkpoint retry = journal.checkpoint();
+			assertEquals(Map.of(7, -3), retry.deltas());
+
+			journal.committed(retry);
+			assertTrue(SeatJournal.recover(dir, 0).deltas().isEmpty());
+		}
+	}
+
+	@Test
+	void testTornRecordIsIgnored() throws Exception {
+		try (SeatJournal journal = new SeatJournal(dir, 1)) {
+			journal.append(7, -2).join();
+		}
+		Files.write(dir.resolve("seats-0000000000000001.log"), new byte[] { 0, 0, 0 }, StandardOpenOption.APPEND);
+
+		assertEquals(Map.of(7, -2), SeatJournal.recover(dir, 0).deltas());
+	}
+
+	@Test
+	void testRejectsAppendsOnceClosed() throws Exception {
+		SeatJournal journal = new SeatJournal(dir, 1);
+		journal.close();
+
+		assertThrows(IllegalStateException.class, () -> journal.append(7, -1));
+	}
+}
@@ -0,0 +1,168 @@
+package com.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatConflictException;
+import com.example.inventory.DatabaseSeatReserver;
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.request.SeatRequest;
+import com.example.search.FlightSearchIndex;
+import com.example.service.FlightService;
+
+// spring.config.name keeps the test application.properties (and its
+// mandatory config-server import) out of this context
+@DataJpaTest(properties = {
+		"spring.config.name=seat-reservation-test",
+		"spring.cloud.config.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:seats;LOCK_TIMEOUT=30000",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.datasource.hikari.maximum-pool-size=50" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ FlightService.class, DatabaseSeatReserver.class, FlightSearchIndex.class })
+class SeatReservationConcurrencyTest {
+
+	private static final int SEATS = 120;
+	private static final int RESERVERS = 500;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private FlightService flightService;
+
+	private int flightId;
+
+	@BeforeEach
+	void setUp() {
+		flightId = saveFlight(SEATS);
+	}
+
+	@AfterEach
+	void tearDown() {
+		flightRepository.deleteAll();
+	}
+
+	@Test
+	void testConcurrentReservationsNeverOversell() throws Exception {
+		AtomicInteger reserved = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(RESERVERS);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (int i = 0; i < RESERVERS; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					try {
+						flightService.reserveSeats(flightId, 1);
+						reserved.incrementAndGet();
+					} catch (SeatConflictException full) {
+						rejected.incrementAndGet();
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> result : results) {
+				result.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals(SEATS, reserved.get());
+		assertEquals(RESERVERS - SEATS, rejected.get());
+		assertEquals(0, flightRepository.findById(flightId).orElseThrow().getAvailableSeats());
+	}
+
+	@Test
+	void testReleaseNeverExceedsTotalSeats() {
+		flightService.reserveSeats(flightId, 2);
+		flightService.releaseSeats(flightId, 2);
+
+		assertThrows(SeatConflictException.class, () -> flightService.releaseSeats(flightId, 1));
+		assertEquals(SEATS, flightRepository.findById(flightId).orElseThrow().getAvailableSeats());
+	}
+
+	@Test
+	void testBatchReservesEveryLegOrNone() {
+		int otherFlight = saveFlight(1);
+
+		assertThrows(SeatConflictException.class, () -> flightService.reserveSeats(List.of(
+				new SeatRequest(flightId, 2), new SeatRequest(otherFlight, 2))));
+		assertEquals(SEATS, available(flightId));
+		assertEquals(1, available(otherFlight));
+
+		flightService.reserveSeats(List.of(new SeatRequest(otherFlight, 1), new SeatRequest(flightId, 2)));
+		assertEquals(SEATS - 2, available(flightId));
+		assertEquals(0, available(otherFlight));
+
+		flightService.releaseSeats(List.of(new SeatRequest(flightId, 2), new SeatRequest(otherFlight, 1)));
+		assertEquals(SEATS, available(flightId));
+		assertEquals(1, available(otherFlight));
+	}
+
+	@Test
+	void testOppositeLegOrdersDoNotDeadlock() throws Exception {
+		int otherFlight = saveFlight(SEATS);
+		ExecutorService pool = Executors.newFixedThreadPool(20);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				List<SeatRequest> legs = i % 2 == 0
+						? List.of(new SeatRequest(flightId, 1), new SeatRequest(otherFlight, 1))
+						: List.of(new SeatRequest(otherFlight, 1), new SeatRequest(flightId, 1));
+				results.add(pool.submit(() -> flightService.reserveSeats(legs)));
+			}
+			for (Future<?> result : results) {
+				result.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals(SEATS - 100, available(flightId));
+		assertEquals(SEATS - 100, available(otherFlight));
+	}
+
+	@Test
+	void testUnknownFlightIsNotFound() {
+		assertThrows(ResourceNotFoundException.class, () -> flightService.reserveSeats(flightId + 1, 1));
+		assertThrows(ResourceNotFoundException.class, () -> flightService.releaseSeats(flightId + 1, 1));
+	}
+
+	private int saveFlight(int seats) {
+		return flightRepository.save(Flight.builder().airline(Airline.INDIGO).origin("DEL").destination("HYD")
+				.price(5000).departureTime(LocalDateTime.now().plusDays(1))
+				.arrivalTime(LocalDateTime.now().plusDays(1).plusHours(2)).totalSeats(seats).availableSeats(seats)
+				.build()).getFlightId();
+	}
+
+	private int available(int id) {
+		return flightRepository.findById(id).orElseThrow().getAvailableSeats();
+	}
+}
@@ -0,0 +1,116 @@
+package com.example.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+
+// spring.config.name keeps the test application.properties (and its
+// mandatory config-server import) out of this context
+@DataJpaTest(properties = {
+		"spring.config.name=flight-search-test",
+		"spring.cloud.config.enabled=false",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect" })
+@AutoConfigureTestDatabase
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(FlightSearchIndex.class)
+class FlightSearchIndexTest {
+
+	private static final LocalDate DAY = LocalDate.now().plusDays(7);
+
+	@Autowired
+	private FlightSearchIndex searchIndex;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	private int morning;
+	private int evening;
+
+	@BeforeEach
+	void setUp() {
+		evening = save("DEL", "HYD", DAY.atTime(21, 30));
+		morning = save("DEL", "HYD", DAY.atTime(6, 0));
+		save("DEL", "HYD", DAY.plusDays(1).atStartOfDay());
+		save("DEL", "BOM", DAY.atTime(9, 0));
+		searchIndex.rebuild();
+	}
+
+	@AfterEach
+	void tearDown() {
+		flightRepository.deleteAll();
+	}
+
+	@Test
+	void testDayRangeMatchesTheDatabaseQuery() {
+		LocalDateTime start = DAY.atStartOfDay();
+		LocalDateTime end = DAY.atTime(23, 59, 59);
+
+		List<Flight> indexed = searchIndex.find("DEL", "HYD", start, end);
+
+		assertTrue(searchIndex.isReady());
+		assertEquals(List.of(morning, evening), ids(indexed));
+		assertEquals(ids(flightRepository.findByOriginAndDestinationAndDepartureTimeBetween("DEL", "HYD", start, end))
+				.stream().sorted().toList(), ids(indexed).stream().sorted().toList());
+		assertEquals(3, searchIndex.find("DEL", "HYD").size());
+		assertTrue(searchIndex.find("HYD", "DEL", start, end).isEmpty());
+	}
+
+	@Test
+	void testChangesAppearAfterRefresh() {
+		int noon = save("DEL", "HYD", DAY.atTime(12, 0));
+		Flight evict = flightRepository.findById(evening).orElseThrow();
+		evict.setDestination("BOM");
+		flightRepository.save(evict);
+		Flight seats = flightRepository.findById(morning).orElseThrow();
+		seats.setAvailableSeats(1);
+		flightRepository.save(seats);
+
+		searchIndex.markDirty(noon);
+		searchIndex.markDirty(evening);
+		searchIndex.markDirty(morning);
+		searchIndex.refresh();
+
+		List<Flight> day = searchIndex.find("DEL", "HYD", DAY.atStartOfDay(), DAY.atTime(23, 59, 59));
+		assertEquals(List.of(morning, noon), ids(day));
+		assertEquals(1, day.get(0).getAvailableSeats());
+		assertEquals(2, searchIndex.find("DEL", "BOM").size());
+	}
+
+	@Test
+	void testDeletedFlightLeavesTheIndex() {
+		flightRepository.deleteById(morning);
+		searchIndex.markDirty(morning);
+		searchIndex.refresh();
+
+		assertEquals(List.of(evening), ids(searchIndex.find("DEL", "HYD", DAY.atStartOfDay(), DAY.atTime(23, 59, 59))));
+		assertFalse(ids(searchIndex.find("DEL", "HYD")).contains(morning));
+	}
+
+	private int save(String origin, String destination, LocalDateTime departure) {
+		return flightRepository.save(Flight.builder().airline(Airline.INDIGO).origin(origin).destination(destination)
+				.price(5000).departureTime(departure).arrivalTime(departure.plusHours(2)).totalSeats(100)
+				.availableSeats(100).build()).getFlightId();
+	}
+
+	private static List<Integer> ids(List<Flight> flights) {
+		return flights.stream().map(Flight::getFlightId).toList();
+	}
+}
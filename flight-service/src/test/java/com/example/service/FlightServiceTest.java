@@ -4,10 +4,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -15,13 +17,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.example.exception.ResourceNotFoundException;
+import com.example.inventory.SeatReserver;
 import com.example.model.Airline;
 import com.example.model.Flight;
 import com.example.repository.FlightRepository;
 import com.example.request.FlightRequest;
 import com.example.request.SearchRequest;
+import com.example.search.FlightSearchIndex;
 
 @ExtendWith(MockitoExtension.class)
 class FlightServiceTest {
@@ -29,6 +34,15 @@ class FlightServiceTest {
 	@Mock
 	private FlightRepository flightRepository;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private SeatReserver seatReserver;
+
+	@Mock
+	private FlightSearchIndex searchIndex;
+
 	@InjectMocks
 	private FlightService flightService;
 
@@ -73,6 +87,21 @@ class FlightServiceTest {
 		});
 	}
 
+	@Test
+	void testSearchUsesIndexOnceBuilt() {
+		Flight flight = createFlight();
+		SearchRequest req = SearchRequest.builder().origin("DEL").destination("HYD")
+				.departureDateTime(flight.getDepartureTime()).build();
+		LocalDateTime day = flight.getDepartureTime().toLocalDate().atStartOfDay();
+
+		when(searchIndex.isReady()).thenReturn(true);
+		when(searchIndex.find("DEL", "HYD", day, day.toLocalDate().atTime(23, 59, 59))).thenReturn(List.of(flight));
+
+		var response = flightService.getByOriginAndDestinationAndDepartureDateTimeService(req);
+		assertEquals(List.of(flight), response.getBody());
+		verifyNoInteractions(flightRepository);
+	}
+
 
 
 	@Test
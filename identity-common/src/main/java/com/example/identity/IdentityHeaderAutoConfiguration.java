@@ -0,0 +1,32 @@
+package com.example.identity;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers {@link IdentityHeaderFilter} in any servlet service that sets
+ * {@code internal.identity.secret}. It runs ahead of Spring Security (order
+ * -100) so security filters can already see the identity.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(name = "jakarta.servlet.Filter")
+@ConditionalOnProperty("internal.identity.secret")
+public class IdentityHeaderAutoConfiguration {
+
+	public static final int FILTER_ORDER = -110;
+
+	@Bean
+	public FilterRegistrationBean<IdentityHeaderFilter> identityHeaderFilter(
+			@Value("${internal.identity.secret}") String secret) {
+		FilterRegistrationBean<IdentityHeaderFilter> registration = new FilterRegistrationBean<>(
+				new IdentityHeaderFilter(new IdentityHeaderCodec(secret)));
+		registration.setOrder(FILTER_ORDER);
+		return registration;
+	}
+}
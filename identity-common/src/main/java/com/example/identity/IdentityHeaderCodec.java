@@ -0,0 +1,108 @@
+package com.example.identity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encodes and verifies the {@value #HEADER} header:
+ *
+ * <pre>
+ * v2.base64url(subject).base64url(role,role).expEpochSeconds.userId.base64url(email).base64url(hmacSha256)
+ * </pre>
+ *
+ * userId and email may be empty. v1 headers (without them) are still
+ * accepted so gateways and services can be upgraded in any order.
+ * The MAC covers everything before the last dot. Checking it costs one
+ * HMAC over a few dozen bytes, far less than parsing and verifying a JWT.
+ */
+public class IdentityHeaderCodec {
+
+	public static final String HEADER = "X-Internal-Identity";
+
+	private static final String VERSION = "v2";
+	private static final String VERSION_1 = "v1";
+	private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder B64D = Base64.getUrlDecoder();
+
+	private final ThreadLocal<Mac> mac;
+
+	public IdentityHeaderCodec(String secret) {
+		if (secret == null || secret.isBlank()) {
+			throw new IllegalArgumentException("internal identity secret must not be empty");
+		}
+		SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+		this.mac = ThreadLocal.withInitial(() -> {
+			try {
+				Mac m = Mac.getInstance("HmacSHA256");
+				m.init(key);
+				return m;
+			} catch (GeneralSecurityException ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+	}
+
+	public String encode(InternalIdentity identity) {
+		String payload = VERSION
+				+ '.' + b64(identity.getSubject())
+				+ '.' + b64(String.join(",", identity.getRoles()))
+				+ '.' + identity.getExpiresAtEpochSecond()
+				+ '.' + (identity.getUserId() == null ? "" : identity.getUserId())
+				+ '.' + (identity.getEmail() == null ? "" : b64(identity.getEmail()));
+		return payload + '.' + B64.encodeToString(sign(payload));
+	}
+
+	/**
+	 * @return the identity, or null if the value is malformed, forged or
+	 *         expired at {@code nowEpochSecond}
+	 */
+	public InternalIdentity decode(String value, long nowEpochSecond) {
+		if (value == null) {
+			return null;
+		}
+		int sigStart = value.lastIndexOf('.');
+		String[] parts = value.split("\\.", -1);
+		boolean v2 = parts.length == 7 && VERSION.equals(parts[0]);
+		if (sigStart < 0 || !(v2 || parts.length == 5 && VERSION_1.equals(parts[0]))) {
+			return null;
+		}
+
+		try {
+			byte[] expected = sign(value.substring(0, sigStart));
+			if (!MessageDigest.isEqual(expected, B64D.decode(parts[parts.length - 1]))) {
+				return null;
+			}
+
+			long exp = Long.parseLong(parts[3]);
+			if (nowEpochSecond >= exp) {
+				return null;
+			}
+			String roles = unb64(parts[2]);
+			Long userId = v2 && !parts[4].isEmpty() ? Long.valueOf(parts[4]) : null;
+			String email = v2 && !parts[5].isEmpty() ? unb64(parts[5]) : null;
+			return new InternalIdentity(unb64(parts[1]),
+					roles.isEmpty() ? List.of() : Arrays.asList(roles.split(",")), exp, userId, email);
+		} catch (IllegalArgumentException malformed) {
+			return null;
+		}
+	}
+
+	private byte[] sign(String payload) {
+		return mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String b64(String s) {
+		return B64.encodeToString(s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String unb64(String s) {
+		return new String(B64D.decode(s), StandardCharsets.UTF_8);
+	}
+}
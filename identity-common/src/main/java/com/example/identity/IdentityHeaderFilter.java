@@ -0,0 +1,48 @@
+package com.example.identity;
+
+import java.io.IOException;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Verifies the gateway's {@value IdentityHeaderCodec#HEADER} header and, if
+ * valid, exposes it as the {@link InternalIdentity#ATTRIBUTE} request
+ * attribute. Requests without a valid header pass through untouched so the
+ * service's own authentication can still run.
+ */
+public class IdentityHeaderFilter implements Filter {
+
+	private final IdentityHeaderCodec codec;
+
+	public IdentityHeaderFilter(IdentityHeaderCodec codec) {
+		this.codec = codec;
+	}
+
+	/**
+	 * @return the identity verified for this request, or null if the request
+	 *         did not carry a valid header
+	 */
+	public static InternalIdentity identityOf(ServletRequest request) {
+		return (InternalIdentity) request.getAttribute(InternalIdentity.ATTRIBUTE);
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+		if (request instanceof HttpServletRequest http) {
+			String header = http.getHeader(IdentityHeaderCodec.HEADER);
+			if (header != null) {
+				InternalIdentity identity = codec.decode(header, System.currentTimeMillis() / 1000);
+				if (identity != null) {
+					request.setAttribute(InternalIdentity.ATTRIBUTE, identity);
+				}
+			}
+		}
+		chain.doFilter(request, response);
+	}
+}
@@ -0,0 +1,68 @@
+package com.example.identity;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Caller identity as asserted by the API gateway after it verified the JWT.
+ * Services read it from the request attribute {@link #ATTRIBUTE}, set by
+ * {@link IdentityHeaderFilter}, instead of parsing the token again.
+ */
+public final class InternalIdentity implements Principal {
+
+	public static final String ATTRIBUTE = InternalIdentity.class.getName();
+
+	private final String subject;
+	private final List<String> roles;
+	private final long expiresAtEpochSecond;
+	private final Long userId;
+	private final String email;
+
+	public InternalIdentity(String subject, List<String> roles, long expiresAtEpochSecond) {
+		this(subject, roles, expiresAtEpochSecond, null, null);
+	}
+
+	public InternalIdentity(String subject, List<String> roles, long expiresAtEpochSecond, Long userId,
+			String email) {
+		this.subject = subject;
+		this.roles = List.copyOf(roles);
+		this.expiresAtEpochSecond = expiresAtEpochSecond;
+		this.userId = userId;
+		this.email = email;
+	}
+
+	@Override
+	public String getName() {
+		return subject;
+	}
+
+	public String getSubject() {
+		return subject;
+	}
+
+	public List<String> getRoles() {
+		return roles;
+	}
+
+	/**
+	 * @return the user's id, or null if the token did not carry one
+	 */
+	public Long getUserId() {
+		return userId;
+	}
+
+	/**
+	 * @return the user's email, or null if the token did not carry one
+	 */
+	public String getEmail() {
+		return email;
+	}
+
+	public long getExpiresAtEpochSecond() {
+		return expiresAtEpochSecond;
+	}
+
+	public boolean isExpired(long nowEpochSecond) {
+		return nowEpochSecond >= expiresAtEpochSecond;
+	}
+}
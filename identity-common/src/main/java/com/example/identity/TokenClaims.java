@@ -0,0 +1,40 @@
+package com.example.identity;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claim names of the access token auth-service issues, and how the gateway
+ * and auth-service read them back. jjwt's {@code Claims} is a {@code Map},
+ * so this needs no JWT library.
+ */
+public final class TokenClaims {
+
+	public static final String ROLES = "roles";
+	public static final String USER_ID = "uid";
+	public static final String EMAIL = "email";
+	public static final String FORCE_PASSWORD_CHANGE = "forcePwdChange";
+
+	private TokenClaims() {
+	}
+
+	/**
+	 * @return the roles claim; a JSON array (what auth-service writes, and
+	 *         jjwt-jackson returns as a List) or, from older tokens, a
+	 *         comma-separated string
+	 */
+	public static List<String> rolesOf(Map<String, ?> claims) {
+		Object roles = claims.get(ROLES);
+		if (roles == null) {
+			return List.of();
+		}
+		if (roles instanceof Collection<?> c) {
+			return c.stream().map(Object::toString).filter(r -> !r.isEmpty()).toList();
+		}
+
+		String s = roles.toString().replace("[", "").replace("]", "").replace(" ", "");
+		return s.isEmpty() ? List.of() : Arrays.asList(s.split(","));
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.identity;
+
+import java.time.Duration;
+
+import org.springframework.http.ResponseCookie;
+
+/**
+ * The {@code Set-Cookie} values that carry the access and refresh tokens:
+ * HTTP-only and expiring with the token they hold. The access token is
+ * sent to the whole site; the refresh token only to the paths that use it.
+ */
+public final class TokenCookies {
+
+	private TokenCookies() {
+	}
+
+	public static ResponseCookie of(String name, String token, Duration maxAge) {
+		return of(name, token, maxAge, "/");
+	}
+
+	/**
+	 * @param path the browser only sends the cookie to URLs under it
+	 */
+	public static ResponseCookie of(String name, String token, Duration maxAge, String path) {
+		return ResponseCookie.from(name, token).path(path).maxAge(maxAge).httpOnly(true).build();
+	}
+
+	/**
+	 * @return a cookie that makes the browser drop {@code name}
+	 */
+	public static ResponseCookie cleared(String name) {
+		return cleared(name, "/");
+	}
+
+	/**
+	 * @return a cookie that makes the browser drop {@code name} set for
+	 *         {@code path}, which must match the path it was set with
+	 */
+	public static ResponseCookie cleared(String name, String path) {
+		return of(name, "", Duration.ZERO, path);
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.identity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class IdentityHeaderCodecTest {
+
+	private final IdentityHeaderCodec codec = new IdentityHeaderCodec("test-secret");
+
+	@Test
+	void testRoundTrip() {
+		String header = codec.encode(new InternalIdentity("alice", List.of("USER", "ADMIN"), 2_000));
+
+		InternalIdentity identity = codec.decode(header, 1_000);
+		assertEquals("alice", identity.getSubject());
+		assertEquals(List.of("USER", "ADMIN"), identity.getRoles());
+		assertEquals(2_000, identity.getExpiresAtEpochSecond());
+	}
+
+	@Test
+	void testCarriesOptionalUserIdAndEmail() {
+		String header = codec.encode(new InternalIdentity("alice", List.of("USER"), 2_000, 42L, "alice@example.com"));
+
+		InternalIdentity identity = codec.decode(header, 1_000);
+		assertEquals(42L, identity.getUserId());
+		assertEquals("alice@example.com", identity.getEmail());
+		assertNull(codec.decode(codec.encode(new InternalIdentity("bob", List.of(), 2_000)), 1_000).getUserId());
+	}
+
+	@Test
+	void testRejectsExpiredForgedAndMalformed() {
+		String header = codec.encode(new InternalIdentity("alice", List.of("USER"), 2_000));
+
+		assertNull(codec.decode(header, 2_000));
+		assertNull(new IdentityHeaderCodec("other-secret").decode(header, 1_000));
+		assertNull(codec.decode(header.replace(".2000.", ".9999."), 1_000));
+		assertNull(codec.decode("v1.not-a-header", 1_000));
+	}
+}
@@ -0,0 +1,25 @@
+package com.example.identity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class TokenClaimsTest {
+
+	@Test
+	void testReadsRolesArray() {
+		assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"),
+				TokenClaims.rolesOf(Map.of(TokenClaims.ROLES, List.of("ROLE_USER", "", "ROLE_ADMIN"))));
+	}
+
+	@Test
+	void testReadsLegacyRolesString() {
+		assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"),
+				TokenClaims.rolesOf(Map.of(TokenClaims.ROLES, "[ROLE_USER, ROLE_ADMIN]")));
+		assertEquals(List.of(), TokenClaims.rolesOf(Map.of(TokenClaims.ROLES, "[]")));
+		assertEquals(List.of(), TokenClaims.rolesOf(Map.of()));
+	}
+}
@@ -2,12 +2,15 @@ package com.example.feign;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import com.example.response.FlightResponse;
+import com.example.response.SeatHoldResponse;
 
 @FeignClient(name = "flight-service")
 public interface FlightInterface {
@@ -20,6 +23,22 @@ public interface FlightInterface {
     void releaseSeats(@PathVariable int id,
                       @RequestParam int seats);
 
+    @PostMapping("/flight/flights/{id}/holds")
+    ResponseEntity<SeatHoldResponse> holdSeats(@PathVariable int id,
+                                               @RequestParam int seats);
+
+    @PutMapping("/flight/holds/{holdId}/confirm")
+    void confirmHold(@PathVariable String holdId);
+
+    @DeleteMapping("/flight/holds/{holdId}")
+    void releaseHold(@PathVariable String holdId);
+
+    /**
+     * Gives the hold's seats back even if it was confirmed.
+     */
+    @PutMapping("/flight/holds/{holdId}/cancel")
+    void cancelHold(@PathVariable String holdId);
+
     @GetMapping("/flight/getFlightById/{id}")
 	public ResponseEntity<FlightResponse> getByID(@PathVariable int id);
 }
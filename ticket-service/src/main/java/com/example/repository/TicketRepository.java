@@ -4,7 +4,12 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.model.Ticket;
 
@@ -17,4 +22,10 @@ public interface TicketRepository extends JpaRepository<Ticket, Integer> {
 
 
 	boolean existsByFlightIdAndPassengerId(Integer flightId, Integer passengerId);
+
+	// own transaction: runs after the booking's transaction has committed
+	@Modifying
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Query("update Ticket t set t.booked = false where t.ticketId = :id")
+	int cancel(@Param("id") int ticketId);
 }
@@ -0,0 +1,20 @@
+package com.example.response;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldResponse {
+	private String holdId;
+	private int flightId;
+	private int seats;
+	private Instant expiresAt;
+
+}
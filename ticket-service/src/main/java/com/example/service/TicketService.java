@@ -12,6 +12,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.example.event.TicketBookedEvent;
 import com.example.exception.ResourceNotFoundException;
@@ -22,8 +24,10 @@ import com.example.repository.TicketRepository;
 import com.example.request.BookTicketRequest;
 import com.example.response.FlightResponse;
 import com.example.response.PassengerDetailsResponse;
+import com.example.response.SeatHoldResponse;
 import com.example.response.TicketResponse;
 
+import feign.FeignException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 
 @Service
@@ -46,6 +50,8 @@ this.kafkaTemplate = kafkaTemplate;
 
 	private static final Logger logger = LoggerFactory.getLogger(TicketService.class);
 
+	private static final int CONFIRM_ATTEMPTS = 3;
+
 	@Transactional
 	public ResponseEntity<String> deleteTicketById(int ticketId) {
 
@@ -89,39 +95,122 @@ this.kafkaTemplate = kafkaTemplate;
 
 
 
+	/**
+	 * Holds the seats, writes the ticket and, once the ticket has committed,
+	 * confirms the hold. If anything before the commit fails, the hold is
+	 * released (or, if that fails too, expires in flight-service); if the
+	 * hold cannot be confirmed, the ticket is cancelled again and the hold
+	 * cancelled, confirmed or not, since a confirm that failed here may have
+	 * gone through in flight-service. Either way no
+	 * seats leak and no ticket stands without its seats.
+	 */
 	@Transactional
 	public ResponseEntity<String> bookTicketService(BookTicketRequest req) {
 
-		// 1. Reduce seats in Flight Service FIRST
 		if (req.getNumberOfSeats() <= 0) {
 		    throw new IllegalArgumentException("Number of seats must be positive");
 		}
 
-		flightInterface.reserveSeats(req.getFlightId(), req.getNumberOfSeats());
+		SeatHoldResponse hold = flightInterface.holdSeats(req.getFlightId(), req.getNumberOfSeats()).getBody();
+		if (hold == null) {
+		    throw new IllegalStateException("Flight service returned no seat hold");
+		}
 
 		String pnr = UUID.randomUUID().toString().substring(0, 8);
+		Ticket ticket;
+		TicketBookedEvent event;
+		try {
+			ticket = Ticket.builder().pnr(pnr).passengerId(req.getPassengerId()).flightId(req.getFlightId())
+					.numberOfSeats(req.getNumberOfSeats()).booked(true).build();
 
-		Ticket ticket = Ticket.builder().pnr(pnr).passengerId(req.getPassengerId()).flightId(req.getFlightId())
-				.numberOfSeats(req.getNumberOfSeats()).booked(true).build();
+			ticketRepository.save(ticket);
+
+			ResponseEntity<PassengerDetailsResponse> passengerResp =
+			        passengerInterface.getPassengerDetails(req.getPassengerId());
+			if (passengerResp == null || passengerResp.getBody() == null) {
+				throw new ResourceNotFoundException("Passenger details unavailable");
+			}
+			PassengerDetailsResponse passenger = passengerResp.getBody();
+
+			event = new TicketBookedEvent(
+			        passenger.getEmail(),
+			        pnr,
+			        req.getFlightId(),
+			        req.getNumberOfSeats()
+			);
+		} catch (RuntimeException ex) {
+			releaseHold(hold);
+			throw ex;
+		}
 
-		ticketRepository.save(ticket);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			confirmBooking(ticket, hold, event);
+			return ResponseEntity.ok(pnr);
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				confirmBooking(ticket, hold, event);
+			}
 
-		PassengerDetailsResponse passenger =
-		        passengerInterface.getPassengerDetails(req.getPassengerId()).getBody();
+			@Override
+			public void afterCompletion(int status) {
+				if (status == STATUS_ROLLED_BACK) {
+					releaseHold(hold);
+				}
+			}
+		});
+		return ResponseEntity.ok(pnr);
+	}
 
-		TicketBookedEvent event = new TicketBookedEvent(
-		        passenger.getEmail(),
-		        pnr,
-		        req.getFlightId(),
-		        req.getNumberOfSeats()
-		);
+	// confirming is idempotent in flight-service, so a confirm whose response
+	// was lost can simply be sent again
+	private void confirmBooking(Ticket ticket, SeatHoldResponse hold, TicketBookedEvent event) {
+		for (int attempt = 1;; attempt++) {
+			try {
+				flightInterface.confirmHold(hold.getHoldId());
+				break;
+			} catch (RuntimeException ex) {
+				if (attempt < CONFIRM_ATTEMPTS) {
+					logger.warn("Confirming seat hold {} failed (attempt {}), retrying: {}", hold.getHoldId(),
+							attempt, ex.getMessage());
+					continue;
+				}
+				logger.error("Could not confirm seat hold {}, cancelling PNR {}: {}", hold.getHoldId(),
+						ticket.getPnr(), ex.getMessage());
+				ticketRepository.cancel(ticket.getTicketId());
+				cancelHold(hold);
+				throw ex;
+			}
+		}
 
 		try {
 		    kafkaTemplate.send("ticket-confirmation", event);
 		} catch (Exception ex) {
-		    logger.error("Kafka failed for PNR {}: {}", pnr, ex.getMessage());
+		    logger.error("Kafka failed for PNR {}: {}", ticket.getPnr(), ex.getMessage());
+		}
+	}
+
+	// a confirm that failed here may still have gone through, and releasing
+	// only takes back unconfirmed holds
+	private void cancelHold(SeatHoldResponse hold) {
+		try {
+			flightInterface.cancelHold(hold.getHoldId());
+		} catch (FeignException.NotFound gone) {
+			logger.info("Seat hold {} was already released or expired", hold.getHoldId());
+		} catch (Exception ex) {
+			logger.error("Could not cancel seat hold {}; if it was confirmed its {} seats on flight {} stay taken: {}",
+					hold.getHoldId(), hold.getSeats(), hold.getFlightId(), ex.getMessage());
+		}
+	}
+
+	private void releaseHold(SeatHoldResponse hold) {
+		try {
+			flightInterface.releaseHold(hold.getHoldId());
+		} catch (Exception ex) {
+			logger.warn("Could not release seat hold {}, it will expire at {}: {}", hold.getHoldId(),
+					hold.getExpiresAt(), ex.getMessage());
 		}
-		return ResponseEntity.ok(pnr);
 	}
 
 	@CircuitBreaker(name = "flightService", fallbackMethod = "getByPnrFallback")
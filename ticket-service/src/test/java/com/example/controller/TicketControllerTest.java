@@ -47,7 +47,7 @@ class TicketControllerTest {
 		BookTicketRequest req = new BookTicketRequest();
 		req.setFlightId(1);
 		req.setPassengerId(10);
-		req.setSeatNo("A1");
+		req.setNumberOfSeats(1);
 
 		when(ticketService.bookTicketService(any())).thenReturn(ResponseEntity.ok("PNR12345"));
 
@@ -4,14 +4,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import com.example.event.TicketBookedEvent;
 import com.example.feign.FlightInterface;
@@ -21,6 +25,7 @@ import com.example.repository.TicketRepository;
 import com.example.request.BookTicketRequest;
 import com.example.response.FlightResponse;
 import com.example.response.PassengerDetailsResponse;
+import com.example.response.SeatHoldResponse;
 import com.example.response.TicketResponse;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -33,6 +38,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(MockitoExtension.class)
 public class TicketServiceTest {
@@ -57,9 +64,11 @@ public class TicketServiceTest {
 
     private PassengerDetailsResponse passenger;
     private FlightResponse flight;
+    private SeatHoldResponse hold;
 
     @BeforeEach
     public void setUp() {
+        hold = SeatHoldResponse.builder().holdId("hold-1").flightId(1).seats(2).build();
         passenger = PassengerDetailsResponse.builder().name("John Doe").email("john@example.com").phoneNum("12345").build();
         flight = FlightResponse.builder()
                 .origin("A")
@@ -76,8 +85,7 @@ public class TicketServiceTest {
         req.setPassengerId(2);
         req.setNumberOfSeats(2);
 
-        // flightInterface.reserveSeats is void
-        doNothing().when(flightInterface).reserveSeats(1, 2);
+        when(flightInterface.holdSeats(1, 2)).thenReturn(ResponseEntity.ok(hold));
 
         // repository save returns the ticket (we'll capture it)
         when(ticketRepository.save(any(Ticket.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -92,11 +100,121 @@ public class TicketServiceTest {
         assertThat(resp.getBody()).isNotNull();
         assertThat(resp.getBody().length()).isEqualTo(8);
 
-        verify(flightInterface, times(1)).reserveSeats(1, 2);
+        verify(flightInterface, times(1)).holdSeats(1, 2);
+        verify(flightInterface, times(1)).confirmHold("hold-1");
+        verify(flightInterface, never()).releaseHold(any());
         verify(ticketRepository, times(1)).save(any(Ticket.class));
         verify(passengerInterface, times(1)).getPassengerDetails(2);
     }
 
+    @Test
+    public void testBookTicketService_passengerLookupFails_releasesHold() {
+        BookTicketRequest req = new BookTicketRequest();
+        req.setFlightId(1);
+        req.setPassengerId(2);
+        req.setNumberOfSeats(2);
+
+        when(flightInterface.holdSeats(1, 2)).thenReturn(ResponseEntity.ok(hold));
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(passengerInterface.getPassengerDetails(2)).thenThrow(new RuntimeException("passenger-service down"));
+
+        assertThrows(RuntimeException.class, () -> ticketService.bookTicketService(req));
+
+        verify(flightInterface, times(1)).releaseHold("hold-1");
+        verify(flightInterface, never()).confirmHold(any());
+    }
+
+    @Test
+    public void testBookTicketService_confirmsHoldOnlyAfterCommit() {
+        BookTicketRequest req = bookingRequest();
+        when(flightInterface.holdSeats(1, 2)).thenReturn(ResponseEntity.ok(hold));
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(passengerInterface.getPassengerDetails(2)).thenReturn(ResponseEntity.ok(passenger));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ticketService.bookTicketService(req);
+            verify(flightInterface, never()).confirmHold(any());
+            verify(kafkaTemplate, never()).send(any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(flightInterface, times(1)).confirmHold("hold-1");
+        verify(kafkaTemplate, times(1)).send(any(), any());
+        verify(flightInterface, never()).releaseHold(any());
+    }
+
+    @Test
+    public void testBookTicketService_rolledBack_releasesHold() {
+        BookTicketRequest req = bookingRequest();
+        when(flightInterface.holdSeats(1, 2)).thenReturn(ResponseEntity.ok(hold));
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(passengerInterface.getPassengerDetails(2)).thenReturn(ResponseEntity.ok(passenger));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ticketService.bookTicketService(req);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(flightInterface, times(1)).releaseHold("hold-1");
+        verify(flightInterface, never()).confirmHold(any());
+    }
+
+    @Test
+    public void testBookTicketService_confirmKeepsFailing_cancelsTicket() {
+        BookTicketRequest req = bookingRequest();
+        when(flightInterface.holdSeats(1, 2)).thenReturn(ResponseEntity.ok(hold));
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(inv -> {
+            Ticket saved = inv.getArgument(0);
+            saved.setTicketId(42);
+            return saved;
+        });
+        when(passengerInterface.getPassengerDetails(2)).thenReturn(ResponseEntity.ok(passenger));
+        doThrow(new RuntimeException("flight-service down")).when(flightInterface).confirmHold("hold-1");
+
+        assertThrows(RuntimeException.class, () -> ticketService.bookTicketService(req));
+
+        verify(flightInterface, times(3)).confirmHold("hold-1");
+        verify(ticketRepository, times(1)).cancel(42);
+        verify(flightInterface, times(1)).cancelHold("hold-1");
+        verify(kafkaTemplate, never()).send(any(), any());
+    }
+
+    // flight-service confirmed the hold, but every response was lost on the way back
+    @Test
+    public void testBookTicketService_confirmWentThroughButResponseLost_cancelsConfirmedHold() {
+        BookTicketRequest req = bookingRequest();
+        when(flightInterface.holdSeats(1, 2)).thenReturn(ResponseEntity.ok(hold));
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(inv -> {
+            Ticket saved = inv.getArgument(0);
+            saved.setTicketId(42);
+            return saved;
+        });
+        when(passengerInterface.getPassengerDetails(2)).thenReturn(ResponseEntity.ok(passenger));
+        Set<String> confirmedRemotely = new HashSet<>();
+        doAnswer(inv -> {
+            confirmedRemotely.add(inv.getArgument(0));
+            throw new RuntimeException("Read timed out");
+        }).when(flightInterface).confirmHold("hold-1");
+        doAnswer(inv -> {
+            assertThat(confirmedRemotely).contains("hold-1");
+            return null;
+        }).when(flightInterface).cancelHold("hold-1");
+
+        assertThrows(RuntimeException.class, () -> ticketService.bookTicketService(req));
+
+        verify(ticketRepository, times(1)).cancel(42);
+        verify(flightInterface, times(1)).cancelHold("hold-1");
+        verify(flightInterface, never()).releaseHold(any());
+    }
+
     @Test
     public void testDeleteTicketById_success() {
         Ticket t = Ticket.builder().ticketId(10).pnr("PNR12345").flightId(100).passengerId(5).numberOfSeats(1).booked(true).build();
@@ -174,5 +292,13 @@ public class TicketServiceTest {
 
         assertThrows(IllegalArgumentException.class, () -> ticketService.bookTicketService(req));
     }
+
+    private BookTicketRequest bookingRequest() {
+        BookTicketRequest req = new BookTicketRequest();
+        req.setFlightId(1);
+        req.setPassengerId(2);
+        req.setNumberOfSeats(2);
+        return req;
+    }
 }
 